@@ -10,28 +10,28 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.esg.risk.backend.model.Holding;
-import com.esg.risk.backend.repository.HoldingRepository;
 import com.esg.risk.backend.service.BreakdownService;
+import com.esg.risk.backend.service.HoldingLoader;
 
 @RestController
 @RequestMapping("/api/portfolios")
 public class BreakdownController {
 
     @Autowired
-    private HoldingRepository holdingRepository;
+    private HoldingLoader holdingLoader;
 
     @Autowired
     private BreakdownService breakdownService;
 
     @GetMapping("/{id}/breakdown/sector")
     public Map<String, Double> getSectorBreakdown(@PathVariable Long id) {
-        List<Holding> holdings = holdingRepository.findByPortfolioId(id);
+        List<Holding> holdings = holdingLoader.load(id);
         return breakdownService.sectorBreakdown(holdings);
     }
 
     @GetMapping("/{id}/breakdown/region")
     public Map<String, Double> getRegionBreakdown(@PathVariable Long id) {
-        List<Holding> holdings = holdingRepository.findByPortfolioId(id);
+        List<Holding> holdings = holdingLoader.load(id);
         return breakdownService.regionBreakdown(holdings);
     }
 }
\ No newline at end of file
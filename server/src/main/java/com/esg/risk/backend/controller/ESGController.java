@@ -1,8 +1,8 @@
 package com.esg.risk.backend.controller;
 
 import com.esg.risk.backend.model.Holding;
-import com.esg.risk.backend.repository.HoldingRepository;
 import com.esg.risk.backend.service.ESGService;
+import com.esg.risk.backend.service.HoldingLoader;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -14,13 +14,13 @@ import java.util.List;
 public class ESGController {
 
     @Autowired
-    private HoldingRepository holdingRepository;
+    private HoldingLoader holdingLoader;
     @Autowired
     private ESGService esgService;
 
     @GetMapping("/{id}/esg")
     public double getEsgScore(@PathVariable Long id) {
-        List<Holding> holdings = holdingRepository.findByPortfolioId(id);
+        List<Holding> holdings = holdingLoader.load(id);
         return esgService.calculateEsg(holdings);
     }
 }
\ No newline at end of file
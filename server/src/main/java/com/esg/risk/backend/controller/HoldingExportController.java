@@ -0,0 +1,54 @@
+package com.esg.risk.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.esg.risk.backend.repository.PortfolioRepository;
+import com.esg.risk.backend.service.HoldingExportService;
+
+@RestController
+@RequestMapping("/api/portfolios")
+public class HoldingExportController {
+
+    @Autowired
+    private HoldingExportService holdingExportService;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    /**
+     * Stream all holdings of a portfolio
+     * Example: GET /api/portfolios/1/holdings/export?format=ndjson
+     */
+    @GetMapping("/{id}/holdings/export")
+    public ResponseEntity<StreamingResponseBody> exportHoldings(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        // Check before streaming; once the body starts the status is already 200
+        if (!portfolioRepository.existsById(id)) {
+            throw new RuntimeException("Portfolio not found");
+        }
+        switch (format.toLowerCase()) {
+            case "ndjson":
+                return ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=holdings-" + id + ".ndjson")
+                        .body(out -> holdingExportService.exportNdjson(id, out));
+            case "csv":
+                return ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("text/csv"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=holdings-" + id + ".csv")
+                        .body(out -> holdingExportService.exportCsv(id, out));
+            default:
+                throw new IllegalArgumentException("Unknown export format: " + format);
+        }
+    }
+}
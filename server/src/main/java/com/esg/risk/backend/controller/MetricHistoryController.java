@@ -0,0 +1,56 @@
+package com.esg.risk.backend.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.esg.risk.backend.dto.MetricHistory;
+import com.esg.risk.backend.model.Portfolio;
+import com.esg.risk.backend.repository.PortfolioRepository;
+import com.esg.risk.backend.service.DimensionService;
+import com.esg.risk.backend.service.MetricHistoryService;
+
+@RestController
+@RequestMapping("/api/portfolios")
+public class MetricHistoryController {
+
+    @Autowired
+    private MetricHistoryService metricHistoryService;
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+    @Autowired
+    private DimensionService dimensionService;
+
+    /**
+     * ESG score (or, with {@code sector}, that sector's exposure in %) over time for
+     * every upload in this portfolio's series
+     * Example: GET /api/portfolios/1/history?from=2024-01-01&to=2024-12-31&interval=weekly
+     * Example: GET /api/portfolios/1/history?sector=Energy&interval=monthly
+     */
+    @GetMapping("/{id}/history")
+    public MetricHistory history(
+            @PathVariable Long id,
+            @RequestParam(required = false) String sector,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "daily") String interval) {
+        Portfolio portfolio = portfolioRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Portfolio not found"));
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        String metric = sector == null
+                ? MetricHistoryService.ESG
+                : MetricHistoryService.sectorMetric(dimensionService.findSectorId(sector));
+        return metricHistoryService.history(MetricHistoryService.seriesKey(portfolio), metric, start, end, interval);
+    }
+}
@@ -0,0 +1,26 @@
+package com.esg.risk.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.esg.risk.backend.dto.LoaderStats;
+import com.esg.risk.backend.service.HoldingLoader;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    @Autowired
+    private HoldingLoader holdingLoader;
+
+    /**
+     * Holdings loader counters, including how many loads were deduplicated
+     * Example: GET /api/metrics/holding-loader
+     */
+    @GetMapping("/holding-loader")
+    public LoaderStats holdingLoaderStats() {
+        return holdingLoader.stats();
+    }
+}
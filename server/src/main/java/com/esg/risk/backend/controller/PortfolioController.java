@@ -0,0 +1,29 @@
+package com.esg.risk.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.esg.risk.backend.service.PortfolioDeletionService;
+
+@RestController
+@RequestMapping("/api/portfolios")
+public class PortfolioController {
+
+    @Autowired
+    private PortfolioDeletionService portfolioDeletionService;
+
+    /**
+     * Delete a portfolio with its holdings and report records
+     * Example: DELETE /api/portfolios/1
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deletePortfolio(@PathVariable Long id) {
+        return portfolioDeletionService.delete(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.esg.risk.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.esg.risk.backend.dto.PageResult;
+import com.esg.risk.backend.dto.PortfolioRanking;
+import com.esg.risk.backend.service.DimensionService;
+import com.esg.risk.backend.service.PortfolioMetricsIndex;
+
+@RestController
+@RequestMapping("/api/portfolios")
+public class PortfolioRankingController {
+
+    @Autowired
+    private PortfolioMetricsIndex portfolioMetricsIndex;
+    @Autowired
+    private DimensionService dimensionService;
+
+    /**
+     * Rank all portfolios by ESG score
+     * Example: GET /api/portfolios/rankings/esg?order=top&page=0&size=20
+     */
+    @GetMapping("/rankings/esg")
+    public PageResult<PortfolioRanking> rankByEsg(
+            @RequestParam(defaultValue = "top") String order,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        checkPaging(page, size);
+        if (!"top".equalsIgnoreCase(order) && !"bottom".equalsIgnoreCase(order)) {
+            throw new IllegalArgumentException("order must be 'top' or 'bottom'");
+        }
+        return portfolioMetricsIndex.rankByEsg("bottom".equalsIgnoreCase(order), page, size);
+    }
+
+    /**
+     * Portfolios with more than a given percentage in one sector
+     * Example: GET /api/portfolios/rankings/sector-exposure?sector=Energy&min=10
+     */
+    @GetMapping("/rankings/sector-exposure")
+    public PageResult<PortfolioRanking> filterBySectorExposure(
+            @RequestParam String sector,
+            @RequestParam(defaultValue = "0") double min,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        checkPaging(page, size);
+        return portfolioMetricsIndex.withSectorExposureAbove(
+                dimensionService.findSectorId(sector), min, page, size);
+    }
+
+    private static void checkPaging(int page, int size) {
+        if (page < 0 || size < 1 || size > 1000) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and 1000");
+        }
+    }
+}
@@ -1,117 +1,104 @@
 package com.esg.risk.backend.controller;
 
 import java.io.InputStream;
-import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.dto.BulkIngestionSummary;
+import com.esg.risk.backend.dto.IngestionReportView;
+import com.esg.risk.backend.model.IngestionReport;
 import com.esg.risk.backend.model.Portfolio;
-import com.esg.risk.backend.repository.HoldingRepository;
-import com.esg.risk.backend.repository.PortfolioRepository;
-import com.esg.risk.backend.service.MinioService;
+import com.esg.risk.backend.repository.IngestionReportRepository;
+import com.esg.risk.backend.service.BulkIngestionService;
+import com.esg.risk.backend.service.PortfolioIngestionService;
+import com.esg.risk.backend.service.RejectionCollector;
 
 @RestController
 @RequestMapping("/api/portfolios")
 @CrossOrigin(origins = {"http://localhost", "http://localhost:80", "http://localhost:5173"})
 public class PortfolioUploadController {
 
+    private static final Logger log = LoggerFactory.getLogger(PortfolioUploadController.class);
+
     @Autowired
-    private PortfolioRepository portfolioRepo;
+    private PortfolioIngestionService ingestionService;
     @Autowired
-    private HoldingRepository holdingRepo;
+    private BulkIngestionService bulkIngestionService;
     @Autowired
-    private MinioService minioService;
+    private IngestionReportRepository ingestionReportRepository;
 
+    /**
+     * Upload one portfolio file; pass the same {@code series} on every upload of a
+     * portfolio to build up one history
+     * Example: POST /api/portfolios/upload?series=fund-a (multipart "file")
+     */
     @PostMapping("/upload")
-    public Portfolio uploadPortfolio(@RequestParam("file") MultipartFile file) throws Exception {
-        System.out.println("Received file: " + file.getOriginalFilename());
-        System.out.println("File size: " + file.getSize());
-        System.out.println("Content type: " + file.getContentType());
+    public Portfolio uploadPortfolio(@RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String series) throws Exception {
+        log.debug("upload file={} size={} contentType={}",
+                file.getOriginalFilename(), file.getSize(), file.getContentType());
 
-        String fileName = file.getOriginalFilename().toLowerCase();
-        if (!fileName.endsWith(".xlsx") && !fileName.endsWith(".xls")) {
-            throw new IllegalArgumentException("Only Excel files (.xlsx, .xls) are supported. Please upload an Excel file.");
+        if (!ingestionService.isSupported(file.getOriginalFilename(), file.getContentType())) {
+            throw new IllegalArgumentException("Unsupported file type. Please upload an Excel (.xlsx, .xls), CSV (.csv) or columnar (.esgc) file.");
         }
 
-        String objectName = "portfolio/" + file.getOriginalFilename();
-        InputStream stream = file.getInputStream();
-        String s3Path = minioService.uploadFile(objectName, stream, file.getSize(), file.getContentType());
-
-        Portfolio portfolio = new Portfolio();
-        portfolio.setName(file.getOriginalFilename());
-        portfolio.setS3Path(s3Path);
-        portfolio.setUploadDate(LocalDate.now());
-        Portfolio savedPortfolio = portfolioRepo.save(portfolio);
-        System.out.println("Saved portfolio with ID: " + savedPortfolio.getId());
+        return ingestionService.store(file.getOriginalFilename(), file.getContentType(), file.getSize(), series, file)
+                .getPortfolio();
+    }
 
-        List<Holding> holdings = parseExcel(file, savedPortfolio);
-        System.out.println("Parsed " + holdings.size() + " holdings");
-        
-        holdingRepo.saveAll(holdings);
-        System.out.println("Saved all holdings to database");
+    /**
+     * Ingest every portfolio file in a ZIP archive in parallel
+     * Example: POST /api/portfolios/bulk-upload (multipart "file")
+     */
+    @PostMapping("/bulk-upload")
+    public BulkIngestionSummary bulkUpload(@RequestParam("file") MultipartFile archive) throws Exception {
+        if (archive.getOriginalFilename() == null || !archive.getOriginalFilename().toLowerCase().endsWith(".zip")) {
+            throw new IllegalArgumentException("Bulk upload expects a .zip archive of portfolio files.");
+        }
+        try (InputStream in = archive.getInputStream()) {
+            return bulkIngestionService.ingestArchive(in);
+        }
+    }
 
-        return savedPortfolio;
+    /**
+     * Ingest portfolio files already stored in the bucket
+     * Example: POST /api/portfolios/bulk-upload/objects ["portfolio/a.xlsx", "portfolio/b.xlsx"]
+     */
+    @PostMapping("/bulk-upload/objects")
+    public BulkIngestionSummary bulkUploadObjects(@RequestBody List<String> objectKeys) throws Exception {
+        return bulkIngestionService.ingestObjects(objectKeys);
     }
 
-    private List<Holding> parseExcel(MultipartFile file, Portfolio portfolio) throws Exception {
-        List<Holding> holdings = new ArrayList<>();
-        
-        try (InputStream inputStream = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(inputStream)) {
-            
-            Sheet sheet = workbook.getSheetAt(0);
-            System.out.println("Sheet name: " + sheet.getSheetName());
-            System.out.println("Total rows: " + sheet.getPhysicalNumberOfRows());
-            
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) {
-                    System.out.println("Skipping null row " + i);
-                    continue;
-                }
-                
-                if (row.getPhysicalNumberOfCells() < 5) {
-                    System.out.println("Skipping row " + i + " - insufficient cells: " + row.getPhysicalNumberOfCells());
-                    continue;
-                }
-                
-                try {
-                    Holding h = new Holding();
-                    h.setPortfolio(portfolio);
-                    
-                    h.setTicker(row.getCell(0).getStringCellValue().trim());
-                    h.setWeight(row.getCell(1).getNumericCellValue() * 100);
-                    h.setSector(row.getCell(2).getStringCellValue().trim());
-                    h.setRegion(row.getCell(3).getStringCellValue().trim());
-                    h.setEsgScore(row.getCell(4).getNumericCellValue());
-                    
-                    holdings.add(h);
-                    System.out.println("✓ Added holding: " + h.getTicker() + 
-                        " | Weight: " + String.format("%.1f", h.getWeight()) + "%" +
-                        " | Sector: " + h.getSector() + 
-                        " | Region: " + h.getRegion() + 
-                        " | ESG: " + h.getEsgScore());
-                    
-                } catch (Exception e) {
-                    System.err.println("Error parsing row " + i + ": " + e.getMessage());
-                }
-            }
-        }
-        
-        System.out.println("Successfully parsed " + holdings.size() + " holdings from Excel");
-        return holdings;
+    /**
+     * Rows rejected while ingesting a portfolio, with counts per reason
+     * Example: GET /api/portfolios/1/ingestion-report?limit=100
+     */
+    @GetMapping("/{id}/ingestion-report")
+    public IngestionReportView ingestionReport(@PathVariable Long id,
+            @RequestParam(defaultValue = "1000") int limit) {
+        IngestionReport report = ingestionReportRepository.findFirstByPortfolioIdOrderByIdDesc(id)
+                .orElseThrow(() -> new RuntimeException("Ingestion report not found"));
+        return new IngestionReportView(
+                report.getPortfolioId(),
+                report.getFileName(),
+                report.getCreatedAt(),
+                report.getTotalRows(),
+                report.getAcceptedRows(),
+                report.getRejectedRows(),
+                RejectionCollector.decodeCounts(report.getReasonCounts()),
+                RejectionCollector.decode(report.getRejections(), Math.max(0, limit)),
+                report.isTruncated());
     }
-}
\ No newline at end of file
+}
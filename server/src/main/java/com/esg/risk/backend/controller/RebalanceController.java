@@ -0,0 +1,46 @@
+package com.esg.risk.backend.controller;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.esg.risk.backend.dto.RebalanceRequest;
+import com.esg.risk.backend.dto.RebalanceResult;
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.service.HoldingLoader;
+import com.esg.risk.backend.service.RebalanceOptimizer;
+
+@RestController
+@RequestMapping("/api/portfolios")
+public class RebalanceController {
+
+    @Autowired
+    private HoldingLoader holdingLoader;
+    @Autowired
+    private RebalanceOptimizer rebalanceOptimizer;
+
+    /**
+     * Smallest reweighting that meets an ESG target under turnover, sector and scenario limits
+     * Example: POST /api/portfolios/1/rebalance
+     *          {"targetEsg": 7, "maxTurnover": 20, "sectorCaps": {"Energy": 10},
+     *           "maxScenarioLoss": {"oil-shock": 15}, "timeBudgetMillis": 2000}
+     */
+    @PostMapping("/{id}/rebalance")
+    public ResponseEntity<RebalanceResult> rebalance(@PathVariable Long id, @RequestBody RebalanceRequest request)
+            throws InterruptedException {
+        List<Holding> holdings = holdingLoader.load(id);
+        try {
+            return ResponseEntity.ok(rebalanceOptimizer.optimize(holdings, request));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.esg.risk.backend.controller;
+
+import java.io.InputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.esg.risk.backend.dto.CovarianceLoadSummary;
+import com.esg.risk.backend.dto.ReferenceLoadSummary;
+import com.esg.risk.backend.dto.TickerReference;
+import com.esg.risk.backend.service.RiskModelService;
+import com.esg.risk.backend.service.TickerReferenceService;
+
+@RestController
+@RequestMapping("/api/reference")
+public class ReferenceDataController {
+
+    @Autowired
+    private TickerReferenceService tickerReferenceService;
+    @Autowired
+    private RiskModelService riskModelService;
+
+    /**
+     * Load a ticker,sector,region,esgScore vendor file
+     * Example: POST /api/reference/tickers?mode=merge (multipart "file")
+     */
+    @PostMapping("/tickers")
+    public ReferenceLoadSummary loadTickers(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "replace") String mode) throws Exception {
+        if (!"replace".equalsIgnoreCase(mode) && !"merge".equalsIgnoreCase(mode)) {
+            throw new IllegalArgumentException("mode must be 'replace' or 'merge'");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return tickerReferenceService.load(in, "merge".equalsIgnoreCase(mode));
+        }
+    }
+
+    /**
+     * Look up one ticker
+     * Example: GET /api/reference/tickers/AAPL
+     */
+    @GetMapping("/tickers/{ticker}")
+    public ResponseEntity<TickerReference> getTicker(@PathVariable String ticker) {
+        TickerReference reference = tickerReferenceService.lookup(ticker);
+        return reference == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(reference);
+    }
+
+    /**
+     * Replace the factor covariance matrix: a square CSV with "Sector" or
+     * "Sector:Region" labels on the first row and column
+     * Example: POST /api/reference/covariance (multipart "file")
+     */
+    @PostMapping("/covariance")
+    public CovarianceLoadSummary loadCovariance(@RequestParam("file") MultipartFile file) throws Exception {
+        try (InputStream in = file.getInputStream()) {
+            return riskModelService.load(in);
+        }
+    }
+}
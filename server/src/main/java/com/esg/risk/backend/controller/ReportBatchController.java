@@ -0,0 +1,74 @@
+package com.esg.risk.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.esg.risk.backend.dto.PageResult;
+import com.esg.risk.backend.dto.ReportBatchRequest;
+import com.esg.risk.backend.dto.ReportBatchStatus;
+import com.esg.risk.backend.model.ReportBatchItem;
+import com.esg.risk.backend.repository.ReportBatchItemRepository;
+import com.esg.risk.backend.service.ReportBatchService;
+
+@RestController
+@RequestMapping("/api/reports/batches")
+public class ReportBatchController {
+
+    @Autowired
+    private ReportBatchService reportBatchService;
+
+    @Autowired
+    private ReportBatchItemRepository itemRepository;
+
+    /**
+     * Start a batch report run; an empty body covers all portfolios
+     * Example: POST /api/reports/batches {"nameContains": "fund"}
+     */
+    @PostMapping
+    public ResponseEntity<ReportBatchStatus> start(@RequestBody(required = false) ReportBatchRequest request) {
+        try {
+            ReportBatchStatus status = reportBatchService.start(
+                    request == null ? new ReportBatchRequest() : request, "API");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Progress and timings of a run
+     * Example: GET /api/reports/batches/3
+     */
+    @GetMapping("/{id}")
+    public ReportBatchStatus status(@PathVariable Long id) {
+        return reportBatchService.status(id);
+    }
+
+    /**
+     * Items of a run, optionally only those in one status
+     * Example: GET /api/reports/batches/3/items?status=FAILED&page=0&size=100
+     */
+    @GetMapping("/{id}/items")
+    public PageResult<ReportBatchItem> items(
+            @PathVariable Long id,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        PageRequest pageable = PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, 1000)));
+        Page<ReportBatchItem> items = status == null
+                ? itemRepository.findByRunIdOrderById(id, pageable)
+                : itemRepository.findByRunIdAndStatusOrderById(id, status.toUpperCase(), pageable);
+        return new PageResult<>(items.getContent(), pageable.getPageNumber(), pageable.getPageSize(),
+                items.getTotalElements());
+    }
+}
@@ -0,0 +1,51 @@
+package com.esg.risk.backend.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.esg.risk.backend.dto.PageResult;
+import com.esg.risk.backend.dto.PortfolioRisk;
+import com.esg.risk.backend.dto.PortfolioVolatility;
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.service.HoldingLoader;
+import com.esg.risk.backend.service.RiskModelService;
+
+@RestController
+@RequestMapping("/api/portfolios")
+public class RiskController {
+
+    @Autowired
+    private HoldingLoader holdingLoader;
+    @Autowired
+    private RiskModelService riskModelService;
+
+    /**
+     * Volatility and risk contributions from the loaded covariance matrix
+     * Example: GET /api/portfolios/1/risk
+     */
+    @GetMapping("/{id}/risk")
+    public PortfolioRisk getRisk(@PathVariable Long id) {
+        List<Holding> holdings = holdingLoader.load(id);
+        return riskModelService.risk(holdings);
+    }
+
+    /**
+     * Volatility of every portfolio, highest first
+     * Example: GET /api/portfolios/risk?page=0&size=50
+     */
+    @GetMapping("/risk")
+    public PageResult<PortfolioVolatility> getRiskForAll(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) throws InterruptedException {
+        if (page < 0 || size < 1 || size > 1000) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and 1000");
+        }
+        return riskModelService.riskAll(page, size);
+    }
+}
@@ -9,7 +9,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.esg.risk.backend.model.Holding;
-import com.esg.risk.backend.repository.HoldingRepository;
+import com.esg.risk.backend.service.HoldingLoader;
 import com.esg.risk.backend.service.StressTestService;
 
 @RestController
@@ -17,7 +17,7 @@ import com.esg.risk.backend.service.StressTestService;
 public class StressTestController {
     
     @Autowired
-    private HoldingRepository holdingRepository;
+    private HoldingLoader holdingLoader;
     @Autowired
     private StressTestService stressTestService;
 
@@ -28,7 +28,7 @@ public class StressTestController {
      */
     @GetMapping("/{id}/stress/{scenario}")
     public double applyScenario(@PathVariable Long id, @PathVariable String scenario) {
-        List<Holding> holdings = holdingRepository.findByPortfolioId(id);
+        List<Holding> holdings = holdingLoader.load(id);
         return stressTestService.runScenario(holdings, scenario);
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.esg.risk.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Per-file results of one bulk ingestion request.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkIngestionSummary {
+
+    private List<IngestionResult> files;
+    private int succeeded;
+    private int failed;
+    private int parallelism;
+    private long totalMillis;
+}
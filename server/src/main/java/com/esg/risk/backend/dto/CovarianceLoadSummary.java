@@ -0,0 +1,15 @@
+package com.esg.risk.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of loading a covariance matrix.
+ */
+@Getter
+@AllArgsConstructor
+public class CovarianceLoadSummary {
+
+    private int factors;
+    private long millis;
+}
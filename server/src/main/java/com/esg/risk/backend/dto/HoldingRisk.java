@@ -0,0 +1,17 @@
+package com.esg.risk.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class HoldingRisk {
+
+    private Long holdingId;
+    private String ticker;
+    private double weight;
+    private String factor;
+    private double marginalContribution; // d(volatility) / d(weight fraction)
+    private double riskContribution;     // weight fraction * marginal; sums to volatility
+    private double riskShare;            // % of volatility
+}
@@ -0,0 +1,26 @@
+package com.esg.risk.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Row-level validation results of a portfolio upload.
+ */
+@Getter
+@AllArgsConstructor
+public class IngestionReportView {
+
+    private Long portfolioId;
+    private String fileName;
+    private LocalDateTime createdAt;
+    private long totalRows;
+    private long acceptedRows;
+    private long rejectedRows;
+    private Map<String, Long> reasonCounts;
+    private List<Rejection> rejections;
+    private boolean truncated;
+}
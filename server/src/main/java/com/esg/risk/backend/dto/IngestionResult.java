@@ -0,0 +1,37 @@
+package com.esg.risk.backend.dto;
+
+import com.esg.risk.backend.model.Portfolio;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Outcome and timings of ingesting one portfolio file.
+ */
+@Getter
+@Setter
+public class IngestionResult {
+
+    public static final String OK = "OK";
+    public static final String FAILED = "FAILED";
+    public static final String SKIPPED = "SKIPPED";
+
+    private String fileName;
+    private String status;
+    private String error;
+    private Long portfolioId;
+    private boolean duplicate; // identical content was already ingested as portfolioId
+    private int holdings;
+    private long rejectedRows; // see GET /api/portfolios/{id}/ingestion-report
+    private long parseMillis;
+    private long persistMillis;
+    private long totalMillis;
+
+    @JsonIgnore
+    private Portfolio portfolio;
+
+    public IngestionResult(String fileName) {
+        this.fileName = fileName;
+    }
+}
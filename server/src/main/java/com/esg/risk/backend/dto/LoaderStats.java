@@ -0,0 +1,18 @@
+package com.esg.risk.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Counters for the holdings single-flight loader.
+ */
+@Getter
+@AllArgsConstructor
+public class LoaderStats {
+
+    private long requests;     // calls to load()
+    private long queries;      // DB queries actually executed
+    private long snapshotHits; // loads answered from a holdings snapshot
+    private long deduplicated; // calls that shared another caller's query
+    private int inFlight;      // loads currently running
+}
@@ -0,0 +1,16 @@
+package com.esg.risk.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MetricHistory {
+
+    private String series;
+    private String metric;
+    private String interval;
+    private List<MetricPoint> points;
+}
@@ -0,0 +1,17 @@
+package com.esg.risk.backend.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Value of a metric on a day, or its average over the bucket starting on {@code date}.
+ */
+@Getter
+@AllArgsConstructor
+public class MetricPoint {
+
+    private LocalDate date;
+    private double value;
+}
@@ -0,0 +1,19 @@
+package com.esg.risk.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One page of a ranked listing.
+ */
+@Getter
+@AllArgsConstructor
+public class PageResult<T> {
+
+    private List<T> content;
+    private int page;
+    private int size;
+    private long totalElements;
+}
@@ -0,0 +1,17 @@
+package com.esg.risk.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A portfolio's position in a firm-wide ranking.
+ */
+@Getter
+@AllArgsConstructor
+public class PortfolioRanking {
+
+    private Long portfolioId;
+    private String name;
+    private double esgScore;
+    private Double sectorExposure; // % of portfolio weight, only set for sector filters
+}
@@ -0,0 +1,21 @@
+package com.esg.risk.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Parametric risk of one portfolio under the loaded covariance matrix.
+ * Volatility is in the matrix's units (e.g. annualized, as a fraction).
+ */
+@Getter
+@AllArgsConstructor
+public class PortfolioRisk {
+
+    private double volatility;
+    private double unmappedWeight;                  // % of weight with no matching factor
+    private Map<String, Double> factorContributions; // factor -> share of volatility
+    private List<HoldingRisk> holdings;             // largest contribution first
+}
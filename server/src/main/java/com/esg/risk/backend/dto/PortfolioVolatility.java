@@ -0,0 +1,14 @@
+package com.esg.risk.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PortfolioVolatility {
+
+    private Long portfolioId;
+    private String name;
+    private double volatility;
+    private double unmappedWeight;
+}
@@ -0,0 +1,24 @@
+package com.esg.risk.backend.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Constraints for a what-if rebalance. Percentages are of total portfolio weight;
+ * any constraint left out is not enforced.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class RebalanceRequest {
+
+    private Double targetEsg;                                   // minimum weighted ESG score
+    private Double maxTurnover;                                 // max % of weight moved (one-way)
+    private Map<String, Double> sectorCaps = new HashMap<>();   // sector name -> max exposure %
+    private Map<String, Double> maxScenarioLoss = new HashMap<>(); // scenario -> max loss %
+    private Long timeBudgetMillis;
+}
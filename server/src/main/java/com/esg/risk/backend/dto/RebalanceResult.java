@@ -0,0 +1,27 @@
+package com.esg.risk.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Best rebalance found within the time budget. When no candidate met every
+ * constraint, {@code feasible} is false and this is the closest one found.
+ */
+@Getter
+@AllArgsConstructor
+public class RebalanceResult {
+
+    private boolean feasible;
+    private double esgBefore;
+    private double esgAfter;
+    private double turnover;                  // % of weight moved
+    private Map<String, Double> scenarioLoss; // scenario -> loss % after rebalance
+    private Map<String, Double> sectorExposure; // sector -> % after rebalance
+    private List<WeightChange> changes;       // largest first
+    private long candidatesEvaluated;
+    private int workers;
+    private long elapsedMillis;
+}
@@ -0,0 +1,17 @@
+package com.esg.risk.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of loading a ticker reference vendor file.
+ */
+@Getter
+@AllArgsConstructor
+public class ReferenceLoadSummary {
+
+    private int rowsLoaded;
+    private int rowsRejected;
+    private int tickers;     // size of the published dataset
+    private long millis;
+}
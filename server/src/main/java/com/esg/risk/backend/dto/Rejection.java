@@ -0,0 +1,16 @@
+package com.esg.risk.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One rejected input row.
+ */
+@Getter
+@AllArgsConstructor
+public class Rejection {
+
+    private long row;
+    private String reason;
+    private String detail;
+}
@@ -0,0 +1,19 @@
+package com.esg.risk.backend.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Which portfolios a batch report run covers; empty means all.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReportBatchRequest {
+
+    private List<Long> portfolioIds;
+    private String nameContains;
+}
@@ -0,0 +1,28 @@
+package com.esg.risk.backend.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Progress and timings of a batch report run.
+ */
+@Getter
+@AllArgsConstructor
+public class ReportBatchStatus {
+
+    private Long runId;
+    private String status;
+    private String triggeredBy;
+    private String selection;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private long total;
+    private long pending;
+    private long done;
+    private long failed;
+    private long skipped;
+    private double avgMillis; // per generated report
+    private long maxMillis;
+}
@@ -0,0 +1,17 @@
+package com.esg.risk.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Reference attributes of a single ticker.
+ */
+@Getter
+@AllArgsConstructor
+public class TickerReference {
+
+    private String ticker;
+    private String sector;
+    private String region;
+    private double esgScore;
+}
@@ -0,0 +1,14 @@
+package com.esg.risk.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class WeightChange {
+
+    private Long holdingId;
+    private String ticker;
+    private double fromWeight;
+    private double toWeight;
+}
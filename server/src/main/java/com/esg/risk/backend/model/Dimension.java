@@ -0,0 +1,12 @@
+package com.esg.risk.backend.model;
+
+/**
+ * Common shape of the small lookup tables (sector, region) that holdings
+ * reference by integer id instead of repeating the name on every row.
+ */
+public interface Dimension {
+
+    Integer getId();
+
+    String getName();
+}
@@ -4,14 +4,18 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.Setter;
 import lombok.Getter;
 
 @Getter
 @Setter
 @Entity
+@Table(indexes = @Index(name = "ix_holding_portfolio_covering",
+        columnList = "portfolio_id, id, sector_id, region_id, weight, esg_score, ticker"))
 public class Holding {
 
     @Id
@@ -24,8 +28,8 @@ public class Holding {
 
     private String ticker;   // e.g. AAPL, TSLA
     private Double weight;   // % of portfolio
-    private String sector;   // e.g. Tech, Energy
-    private String region;   // e.g. US, EU
+    private Integer sectorId; // FK to sector dimension
+    private Integer regionId; // FK to region dimension
     private Double esgScore; // ESG score value
 
 
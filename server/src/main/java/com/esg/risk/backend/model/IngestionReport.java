@@ -0,0 +1,44 @@
+package com.esg.risk.backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(indexes = @Index(name = "ix_ingestion_report_portfolio", columnList = "portfolio_id"))
+public class IngestionReport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "portfolio_id")
+    private Long portfolioId;
+
+    private String fileName;
+
+    private LocalDateTime createdAt;
+
+    private long totalRows;
+    private long acceptedRows;
+    private long rejectedRows;
+
+    private String reasonCounts; // e.g. "INVALID_WEIGHT=3;MISSING_TICKER=1"
+
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    private byte[] rejections;   // gzip'd "row<TAB>reason<TAB>detail" lines
+
+    private boolean truncated;   // more rejects than were kept in detail
+}
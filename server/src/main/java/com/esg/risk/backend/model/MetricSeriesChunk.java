@@ -0,0 +1,45 @@
+package com.esg.risk.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One year of daily points of one metric of one portfolio series,
+ * encoded with {@link com.esg.risk.backend.service.MetricSeriesCodec}.
+ */
+@Getter
+@Setter
+@Entity
+@Table(indexes = @Index(name = "ux_metric_series_chunk", columnList = "series_key, metric, period", unique = true))
+public class MetricSeriesChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "series_key", nullable = false)
+    private String seriesKey;   // see MetricHistoryService.seriesKey
+
+    @Column(nullable = false, length = 32)
+    private String metric;      // "esg" or "sector:<sectorId>"
+
+    @Column(nullable = false)
+    private int period;         // calendar year
+
+    private int firstDay;       // epoch day the deltas start from
+    private int lastDay;
+    private long lastValue;     // fixed-point, last encoded value
+    private int points;
+
+    @Lob
+    @Column(columnDefinition = "MEDIUMBLOB")
+    private byte[] data;
+}
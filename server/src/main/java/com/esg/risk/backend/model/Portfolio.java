@@ -2,16 +2,20 @@ package com.esg.risk.backend.model;
 
 import java.time.LocalDate;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity
+@Table(indexes = @Index(name = "ux_portfolio_content_hash", columnList = "content_hash", unique = true))
 public class Portfolio {
 
     @Id
@@ -21,4 +25,13 @@ public class Portfolio {
     private String name;
     private LocalDate uploadDate;
     private String s3Path;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // SHA-256 of the uploaded file, hex
+
+    @Column(name = "series_key")
+    private String seriesKey; // history series named on upload; null for the portfolio's own
+
+    @Column(name = "data_version", nullable = false)
+    private long dataVersion = 1; // random token, new whenever the holdings are written; invalidates snapshots
 }
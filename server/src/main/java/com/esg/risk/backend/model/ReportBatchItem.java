@@ -0,0 +1,50 @@
+package com.esg.risk.backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One portfolio of a batch run. Items are the checkpoint: a restarted run
+ * only processes those still PENDING.
+ */
+@Getter
+@Setter
+@Entity
+@Table(indexes = {
+        @Index(name = "ix_report_batch_item_run_status", columnList = "run_id, status, id"),
+        @Index(name = "ix_report_batch_item_portfolio", columnList = "portfolio_id")
+})
+public class ReportBatchItem {
+
+    public static final String PENDING = "PENDING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+    public static final String SKIPPED = "SKIPPED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "portfolio_id", nullable = false)
+    private Long portfolioId;
+
+    @Column(length = 16)
+    private String status;
+
+    private Long reportId;
+    private Long millis;        // generation + upload time
+    private String error;
+    private LocalDateTime finishedAt;
+}
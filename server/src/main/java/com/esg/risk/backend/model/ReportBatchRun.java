@@ -0,0 +1,48 @@
+package com.esg.risk.backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One run of the batch report job. Progress lives in its {@link ReportBatchItem}s.
+ */
+@Getter
+@Setter
+@Entity
+public class ReportBatchRun {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";       // finished with items left PENDING
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 16)
+    private String status;
+
+    @Column(length = 16)
+    private String triggeredBy; // SCHEDULE or API
+
+    private String selection;   // human readable description of the portfolios included
+
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+
+    private long total;
+
+    // Both change only through the claim and heartbeat UPDATEs in ReportBatchService
+    @Column(length = 64, updatable = false)
+    private String owner;       // instance executing the run
+
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime heartbeat; // last sign of life from the owner, in DB time
+}
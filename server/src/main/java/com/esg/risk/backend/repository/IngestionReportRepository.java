@@ -0,0 +1,12 @@
+package com.esg.risk.backend.repository;
+
+import com.esg.risk.backend.model.IngestionReport;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface IngestionReportRepository extends JpaRepository<IngestionReport, Long> {
+    Optional<IngestionReport> findFirstByPortfolioIdOrderByIdDesc(Long portfolioId);
+
+    void deleteByPortfolioId(Long portfolioId);
+}
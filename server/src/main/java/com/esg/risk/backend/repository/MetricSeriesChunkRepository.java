@@ -0,0 +1,13 @@
+package com.esg.risk.backend.repository;
+
+import com.esg.risk.backend.model.MetricSeriesChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface MetricSeriesChunkRepository extends JpaRepository<MetricSeriesChunk, Long> {
+    List<MetricSeriesChunk> findBySeriesKeyAndPeriod(String seriesKey, int period);
+
+    List<MetricSeriesChunk> findBySeriesKeyAndMetricAndPeriodBetweenOrderByPeriod(
+            String seriesKey, String metric, int fromPeriod, int toPeriod);
+}
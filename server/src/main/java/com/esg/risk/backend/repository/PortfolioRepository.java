@@ -3,4 +3,8 @@ package com.esg.risk.backend.repository;
 import com.esg.risk.backend.model.Portfolio;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {}
\ No newline at end of file
+import java.util.Optional;
+
+public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
+    Optional<Portfolio> findByContentHash(String contentHash);
+}
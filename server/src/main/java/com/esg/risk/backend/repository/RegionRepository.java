@@ -0,0 +1,10 @@
+package com.esg.risk.backend.repository;
+
+import com.esg.risk.backend.model.Region;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface RegionRepository extends JpaRepository<Region, Integer> {
+    Optional<Region> findByNameIgnoreCase(String name);
+}
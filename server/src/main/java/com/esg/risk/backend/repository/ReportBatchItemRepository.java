@@ -0,0 +1,18 @@
+package com.esg.risk.backend.repository;
+
+import com.esg.risk.backend.model.ReportBatchItem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ReportBatchItemRepository extends JpaRepository<ReportBatchItem, Long> {
+    List<ReportBatchItem> findTop500ByRunIdAndStatusAndIdGreaterThanOrderById(Long runId, String status, Long afterId);
+
+    long countByRunIdAndStatus(Long runId, String status);
+
+    Page<ReportBatchItem> findByRunIdOrderById(Long runId, Pageable pageable);
+
+    Page<ReportBatchItem> findByRunIdAndStatusOrderById(Long runId, String status, Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.esg.risk.backend.repository;
+
+import com.esg.risk.backend.model.ReportBatchRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReportBatchRunRepository extends JpaRepository<ReportBatchRun, Long> {
+    List<ReportBatchRun> findByStatus(String status);
+
+    boolean existsByTriggeredByAndCreatedAtAfter(String triggeredBy, LocalDateTime after);
+}
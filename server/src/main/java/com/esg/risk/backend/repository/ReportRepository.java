@@ -7,4 +7,6 @@ import java.util.List;
 
 public interface ReportRepository extends JpaRepository<Report, Long> {
     List<Report> findByPortfolioId(Long portfolioId);
+
+    void deleteByPortfolioId(Long portfolioId);
 }
\ No newline at end of file
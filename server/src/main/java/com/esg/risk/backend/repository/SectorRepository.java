@@ -0,0 +1,10 @@
+package com.esg.risk.backend.repository;
+
+import com.esg.risk.backend.model.Sector;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface SectorRepository extends JpaRepository<Sector, Integer> {
+    Optional<Sector> findByNameIgnoreCase(String name);
+}
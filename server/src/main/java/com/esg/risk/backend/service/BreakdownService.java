@@ -6,29 +6,50 @@ import org.springframework.stereotype.Service;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 @Service
 public class BreakdownService {
 
+    private final DimensionService dimensionService;
+
+    public BreakdownService(DimensionService dimensionService) {
+        this.dimensionService = dimensionService;
+    }
+
     /**
      * Group holdings by sector and sum their weights.
      */
     public Map<String, Double> sectorBreakdown(List<Holding> holdings) {
-        Map<String, Double> result = new HashMap<>();
-        for (Holding h : holdings) {
-            result.merge(h.getSector(), h.getWeight(), Double::sum);
-        }
-        return result;
+        return dimensionService.withSectorNames(sectorWeights(holdings));
     }
 
     /**
      * Group holdings by region and sum their weights.
      */
     public Map<String, Double> regionBreakdown(List<Holding> holdings) {
-        Map<String, Double> result = new HashMap<>();
+        return dimensionService.withRegionNames(regionWeights(holdings));
+    }
+
+    /**
+     * Sum weights per sector id, without resolving names.
+     */
+    public Map<Integer, Double> sectorWeights(List<Holding> holdings) {
+        return sumWeights(holdings, Holding::getSectorId);
+    }
+
+    /**
+     * Sum weights per region id, without resolving names.
+     */
+    public Map<Integer, Double> regionWeights(List<Holding> holdings) {
+        return sumWeights(holdings, Holding::getRegionId);
+    }
+
+    private static Map<Integer, Double> sumWeights(List<Holding> holdings, Function<Holding, Integer> key) {
+        Map<Integer, Double> result = new HashMap<>();
         for (Holding h : holdings) {
-            result.merge(h.getRegion(), h.getWeight(), Double::sum);
+            result.merge(key.apply(h), h.getWeight(), Double::sum);
         }
         return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,209 @@
+package com.esg.risk.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.stereotype.Service;
+
+import com.esg.risk.backend.dto.BulkIngestionSummary;
+import com.esg.risk.backend.dto.IngestionResult;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ingests many portfolio files at once on a bounded worker pool.
+ *
+ * Parallelism is capped below the DB connection pool size so bulk loads
+ * never starve interactive requests of connections. At most that many files
+ * are held in memory at a time (across all bulk requests), each no larger
+ * than {@code ingest.bulk.max-file-bytes}.
+ */
+@Service
+public class BulkIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkIngestionService.class);
+
+    private final PortfolioIngestionService ingestionService;
+    private final MinioService minioService;
+    private final int parallelism;
+    private final long maxFileBytes;
+    private final Semaphore slots;
+    private final ExecutorService workers;
+
+    public BulkIngestionService(
+            PortfolioIngestionService ingestionService,
+            MinioService minioService,
+            @Value("${ingest.bulk.parallelism:4}") int parallelism,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+            @Value("${ingest.bulk.max-file-bytes:52428800}") long maxFileBytes) {
+        this.ingestionService = ingestionService;
+        this.minioService = minioService;
+        // Leave connections free for user traffic
+        this.parallelism = Math.max(1, Math.min(parallelism, connectionPoolSize - 2));
+        this.maxFileBytes = maxFileBytes;
+        this.slots = new Semaphore(this.parallelism);
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread t = new Thread(r, "bulk-ingest-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Ingest every supported portfolio file inside a ZIP archive.
+     */
+    public BulkIngestionSummary ingestArchive(InputStream archive) throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        List<Future<IngestionResult>> pending = new ArrayList<>();
+
+        try (ZipInputStream zip = new ZipInputStream(archive)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String fileName = baseName(entry.getName());
+                if (entry.isDirectory() || fileName.isEmpty() || fileName.startsWith(".")
+                        || entry.getName().startsWith("__MACOSX/")) {
+                    continue;
+                }
+                if (!ingestionService.isSupported(fileName, null)) {
+                    pending.add(CompletableFuture.completedFuture(skipped(fileName, "Unsupported file type")));
+                    continue;
+                }
+
+                // Wait for a free worker before buffering the next file
+                slots.acquire();
+                byte[] data;
+                try {
+                    data = readEntry(zip);
+                } catch (IOException e) {
+                    slots.release();
+                    pending.add(CompletableFuture.completedFuture(failed(fileName, e, 0)));
+                    continue;
+                }
+                pending.add(workers.submit(() -> {
+                    try {
+                        return storeAndIngest(fileName, data);
+                    } finally {
+                        slots.release();
+                    }
+                }));
+            }
+        }
+        return summarize(pending, start);
+    }
+
+    /**
+     * Ingest portfolio files that are already in the bucket.
+     */
+    public BulkIngestionSummary ingestObjects(List<String> objectKeys) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        List<Future<IngestionResult>> pending = new ArrayList<>();
+
+        for (String key : objectKeys) {
+            String fileName = baseName(key);
+            if (!ingestionService.isSupported(fileName, null)) {
+                pending.add(CompletableFuture.completedFuture(skipped(fileName, "Unsupported file type")));
+                continue;
+            }
+            slots.acquire();
+            pending.add(workers.submit(() -> {
+                long fileStart = System.currentTimeMillis();
+                try (InputStream in = minioService.getFile(key)) {
+                    byte[] data = in.readNBytes((int) Math.min(maxFileBytes + 1, Integer.MAX_VALUE - 8));
+                    if (data.length > maxFileBytes) {
+                        throw new IOException("File exceeds " + maxFileBytes + " bytes");
+                    }
+                    return ingestionService.ingestStored(fileName, key, new ByteArrayResource(data));
+                } catch (Exception e) {
+                    return failed(fileName, e, System.currentTimeMillis() - fileStart);
+                } finally {
+                    slots.release();
+                }
+            }));
+        }
+        return summarize(pending, start);
+    }
+
+    private IngestionResult storeAndIngest(String fileName, byte[] data) {
+        long start = System.currentTimeMillis();
+        try {
+            return ingestionService.store(fileName, null, data.length, new ByteArrayResource(data));
+        } catch (Exception e) {
+            return failed(fileName, e, System.currentTimeMillis() - start);
+        }
+    }
+
+    private byte[] readEntry(ZipInputStream zip) throws IOException {
+        byte[] data = zip.readNBytes((int) Math.min(maxFileBytes + 1, Integer.MAX_VALUE - 8));
+        if (data.length > maxFileBytes) {
+            throw new IOException("File exceeds " + maxFileBytes + " bytes");
+        }
+        return data;
+    }
+
+    private BulkIngestionSummary summarize(List<Future<IngestionResult>> pending, long start)
+            throws InterruptedException {
+        List<IngestionResult> results = new ArrayList<>(pending.size());
+        int succeeded = 0;
+        int failed = 0;
+        for (Future<IngestionResult> future : pending) {
+            IngestionResult result;
+            try {
+                result = future.get();
+            } catch (ExecutionException e) {
+                result = failed("unknown", e.getCause(), 0);
+            }
+            if (IngestionResult.OK.equals(result.getStatus())) {
+                succeeded++;
+            } else if (IngestionResult.FAILED.equals(result.getStatus())) {
+                failed++;
+            }
+            results.add(result);
+        }
+        long total = System.currentTimeMillis() - start;
+        log.info("bulk ingestion succeeded={} failed={} totalMs={}", succeeded, failed, total);
+        return new BulkIngestionSummary(results, succeeded, failed, parallelism, total);
+    }
+
+    private static IngestionResult skipped(String fileName, String reason) {
+        IngestionResult result = new IngestionResult(fileName);
+        result.setStatus(IngestionResult.SKIPPED);
+        result.setError(reason);
+        return result;
+    }
+
+    private static IngestionResult failed(String fileName, Throwable error, long millis) {
+        log.warn("ingestion failed file={} error=\"{}\"", fileName, error.getMessage());
+        IngestionResult result = new IngestionResult(fileName);
+        result.setStatus(IngestionResult.FAILED);
+        result.setError(error.getMessage());
+        result.setTotalMillis(millis);
+        return result;
+    }
+
+    private static String baseName(String path) {
+        int slash = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        return path.substring(slash + 1);
+    }
+}
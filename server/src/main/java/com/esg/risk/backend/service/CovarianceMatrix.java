@@ -0,0 +1,165 @@
+package com.esg.risk.backend.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable factor covariance matrix, stored row-major in one primitive array.
+ *
+ * Factors are labelled "Sector:Region" or just "Sector". Instances are built
+ * once per load and shared read-only by every risk calculation.
+ */
+public final class CovarianceMatrix {
+
+    // 64 x 64 doubles = 32 KB, one block of the matrix fits in L1/L2
+    private static final int BLOCK = 64;
+    private static final double SYMMETRY_TOLERANCE = 1e-9;
+
+    private final String[] labels;
+    private final Map<String, Integer> index;
+    private final double[] values;
+    private final int size;
+
+    private CovarianceMatrix(String[] labels, double[] values) {
+        this.labels = labels;
+        this.values = values;
+        this.size = labels.length;
+        this.index = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            if (index.put(key(labels[i]), i) != null) {
+                throw new IllegalArgumentException("Duplicate factor: " + labels[i]);
+            }
+        }
+    }
+
+    public static CovarianceMatrix of(String[] labels, double[] values) {
+        if (values.length != labels.length * labels.length) {
+            throw new IllegalArgumentException("Matrix must be " + labels.length + " x " + labels.length);
+        }
+        int n = labels.length;
+        for (int i = 0; i < n; i++) {
+            if (!(values[i * n + i] >= 0)) {
+                throw new IllegalArgumentException("Negative variance for " + labels[i]);
+            }
+            for (int j = i + 1; j < n; j++) {
+                double a = values[i * n + j];
+                double b = values[j * n + i];
+                if (Math.abs(a - b) > SYMMETRY_TOLERANCE * Math.max(1.0, Math.max(Math.abs(a), Math.abs(b)))) {
+                    throw new IllegalArgumentException("Matrix is not symmetric at " + labels[i] + " / " + labels[j]);
+                }
+            }
+        }
+        return new CovarianceMatrix(labels.clone(), values.clone());
+    }
+
+    /**
+     * Parse a square CSV matrix: a header row of factor labels (first cell ignored),
+     * then one row per factor in the same order, starting with its label.
+     */
+    public static CovarianceMatrix parse(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Covariance file is empty");
+        }
+        String[] headerFields = header.split(",", -1);
+        int n = headerFields.length - 1;
+        if (n < 1) {
+            throw new IllegalArgumentException("Covariance header must list at least one factor");
+        }
+        String[] labels = new String[n];
+        for (int i = 0; i < n; i++) {
+            labels[i] = headerFields[i + 1].trim();
+        }
+
+        double[] values = new double[n * n];
+        int row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (row == n) {
+                throw new IllegalArgumentException("More rows than factors in covariance file");
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length != n + 1) {
+                throw new IllegalArgumentException("Row " + (row + 1) + " has " + (fields.length - 1)
+                        + " values, expected " + n);
+            }
+            if (!key(fields[0]).equals(key(labels[row]))) {
+                throw new IllegalArgumentException("Row " + (row + 1) + " is '" + fields[0].trim()
+                        + "', expected '" + labels[row] + "'");
+            }
+            for (int j = 0; j < n; j++) {
+                values[row * n + j] = Double.parseDouble(fields[j + 1].trim());
+            }
+            row++;
+        }
+        if (row != n) {
+            throw new IllegalArgumentException("Covariance file has " + row + " rows, expected " + n);
+        }
+        return of(labels, values);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String label(int factor) {
+        return labels[factor];
+    }
+
+    public double get(int i, int j) {
+        return values[i * size + j];
+    }
+
+    /**
+     * Index of a factor label (case-insensitive), or -1.
+     */
+    public int indexOf(String label) {
+        Integer i = label == null ? null : index.get(key(label));
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * Y = X * Sigma for rows {@code [fromRow, toRow)} of the row-major exposure matrix
+     * {@code x} (one portfolio per row, {@code size()} columns). The rows of {@code y}
+     * must be zero on entry. Distinct row ranges can be computed concurrently.
+     *
+     * Loops are tiled so a BLOCK x BLOCK tile of the matrix is reused across all rows
+     * of the range while it is in cache, and zero exposures are skipped.
+     */
+    public void multiply(double[] x, double[] y, int fromRow, int toRow) {
+        int n = size;
+        for (int kb = 0; kb < n; kb += BLOCK) {
+            int kEnd = Math.min(kb + BLOCK, n);
+            for (int jb = 0; jb < n; jb += BLOCK) {
+                int jEnd = Math.min(jb + BLOCK, n);
+                for (int r = fromRow; r < toRow; r++) {
+                    int rowBase = r * n;
+                    for (int k = kb; k < kEnd; k++) {
+                        double xk = x[rowBase + k];
+                        if (xk == 0.0) {
+                            continue;
+                        }
+                        int matrixBase = k * n;
+                        for (int j = jb; j < jEnd; j++) {
+                            y[rowBase + j] += xk * values[matrixBase + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static String key(String label) {
+        return label.trim().toLowerCase(Locale.ROOT);
+    }
+}
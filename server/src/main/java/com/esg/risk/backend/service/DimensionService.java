@@ -0,0 +1,176 @@
+package com.esg.risk.backend.service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.esg.risk.backend.model.Dimension;
+import com.esg.risk.backend.model.Region;
+import com.esg.risk.backend.model.Sector;
+import com.esg.risk.backend.repository.RegionRepository;
+import com.esg.risk.backend.repository.SectorRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Interning cache for the sector and region dimension tables.
+ *
+ * Ingestion turns names into small integer ids here, analytics group on
+ * those ids, and names are only looked up again when a response is built.
+ * Names are matched case-insensitively, so "Energy" and "energy" share an id.
+ */
+@Service
+public class DimensionService {
+
+    private final SectorRepository sectorRepository;
+    private final RegionRepository regionRepository;
+
+    private final InternTable sectors = new InternTable();
+    private final InternTable regions = new InternTable();
+
+    public DimensionService(SectorRepository sectorRepository, RegionRepository regionRepository) {
+        this.sectorRepository = sectorRepository;
+        this.regionRepository = regionRepository;
+    }
+
+    /**
+     * Preload every known dimension row so steady-state lookups never hit the DB.
+     */
+    @PostConstruct
+    public void warmUp() {
+        sectorRepository.findAll().forEach(sectors::register);
+        regionRepository.findAll().forEach(regions::register);
+    }
+
+    /**
+     * Resolve a sector name to its id, creating the dimension row on first sight.
+     */
+    public Integer sectorId(String name) {
+        return sectors.intern(name, n -> findOrCreate(n,
+                sectorRepository::findByNameIgnoreCase,
+                () -> sectorRepository.save(new Sector(n))));
+    }
+
+    /**
+     * Resolve a region name to its id, creating the dimension row on first sight.
+     */
+    public Integer regionId(String name) {
+        return regions.intern(name, n -> findOrCreate(n,
+                regionRepository::findByNameIgnoreCase,
+                () -> regionRepository.save(new Region(n))));
+    }
+
+    /**
+     * Look up a sector id without creating one; null if the name has never been seen.
+     */
+    public Integer findSectorId(String name) {
+        return sectors.find(name, n -> sectorRepository.findByNameIgnoreCase(n).orElse(null));
+    }
+
+    public String sectorName(Integer id) {
+        return sectors.name(id, key -> sectorRepository.findById(key).orElse(null));
+    }
+
+    public String regionName(Integer id) {
+        return regions.name(id, key -> regionRepository.findById(key).orElse(null));
+    }
+
+    /**
+     * Swap sector ids for names in an id-keyed aggregate.
+     */
+    public Map<String, Double> withSectorNames(Map<Integer, Double> byId) {
+        Map<String, Double> result = new HashMap<>();
+        byId.forEach((id, value) -> result.merge(sectorName(id), value, Double::sum));
+        return result;
+    }
+
+    /**
+     * Swap region ids for names in an id-keyed aggregate.
+     */
+    public Map<String, Double> withRegionNames(Map<Integer, Double> byId) {
+        Map<String, Double> result = new HashMap<>();
+        byId.forEach((id, value) -> result.merge(regionName(id), value, Double::sum));
+        return result;
+    }
+
+    private static <T extends Dimension> Dimension findOrCreate(
+            String name,
+            Function<String, Optional<T>> finder,
+            Supplier<T> creator) {
+        return finder.apply(name).map(d -> (Dimension) d).orElseGet(() -> {
+            try {
+                return creator.get();
+            } catch (DataIntegrityViolationException e) {
+                // Another instance inserted the same name first
+                return finder.apply(name).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Bidirectional name/id map for one dimension table.
+     */
+    private static final class InternTable {
+
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+        void register(Dimension dimension) {
+            ids.put(key(dimension.getName()), dimension.getId());
+            names.put(dimension.getId(), dimension.getName());
+        }
+
+        Integer intern(String name, Function<String, Dimension> loader) {
+            if (name == null || name.isBlank()) {
+                return null;
+            }
+            return ids.computeIfAbsent(key(name), k -> {
+                Dimension dimension = loader.apply(name.trim());
+                names.put(dimension.getId(), dimension.getName());
+                return dimension.getId();
+            });
+        }
+
+        Integer find(String name, Function<String, Dimension> loader) {
+            if (name == null || name.isBlank()) {
+                return null;
+            }
+            Integer id = ids.get(key(name));
+            if (id == null) {
+                Dimension dimension = loader.apply(name.trim());
+                if (dimension != null) {
+                    register(dimension);
+                    id = dimension.getId();
+                }
+            }
+            return id;
+        }
+
+        String name(Integer id, IntFunction<Dimension> loader) {
+            if (id == null) {
+                return null;
+            }
+            String name = names.get(id);
+            if (name == null) {
+                Dimension dimension = loader.apply(id);
+                if (dimension != null) {
+                    register(dimension);
+                    name = dimension.getName();
+                }
+            }
+            return name;
+        }
+    }
+}
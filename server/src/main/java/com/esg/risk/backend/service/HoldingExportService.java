@@ -0,0 +1,191 @@
+package com.esg.risk.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams a portfolio's holdings straight from JDBC to the client.
+ *
+ * Rows are read with keyset pagination on (portfolio_id, id): each page is a
+ * short indexed range scan, no connection is held while the client drains the
+ * previous page, and server memory stays at one page whatever the portfolio size.
+ * No JPA entities are created along the way.
+ */
+@Service
+public class HoldingExportService {
+
+    private static final String PAGE_SQL =
+            "SELECT id, ticker, weight, sector_id, region_id, esg_score FROM holding "
+            + "WHERE portfolio_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DimensionService dimensionService;
+    private final JsonFactory jsonFactory;
+    private final int pageSize;
+
+    public HoldingExportService(
+            DataSource dataSource,
+            DimensionService dimensionService,
+            ObjectMapper objectMapper,
+            @Value("${export.page-size:5000}") int pageSize) {
+        // Own template so the fetch size does not leak into other queries
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(pageSize);
+        this.dimensionService = dimensionService;
+        this.jsonFactory = objectMapper.getFactory();
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Write holdings as newline-delimited JSON, one object per line.
+     */
+    public void exportNdjson(Long portfolioId, OutputStream out) throws IOException {
+        try (JsonGenerator gen = jsonFactory.createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            streamPages(portfolioId, row -> {
+                gen.writeStartObject();
+                gen.writeNumberField("id", row.id);
+                gen.writeStringField("ticker", row.ticker);
+                writeNumberOrNull(gen, "weight", row.weight);
+                gen.writeStringField("sector", dimensionService.sectorName(row.sectorId));
+                gen.writeStringField("region", dimensionService.regionName(row.regionId));
+                writeNumberOrNull(gen, "esgScore", row.esgScore);
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+            }, gen::flush);
+        }
+    }
+
+    /**
+     * Write holdings as CSV with a header line.
+     */
+    public void exportCsv(Long portfolioId, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write("id,ticker,weight,sector,region,esgScore\n");
+        streamPages(portfolioId, row -> {
+            writer.write(Long.toString(row.id));
+            writer.write(',');
+            writer.write(csv(row.ticker));
+            writer.write(',');
+            writer.write(number(row.weight));
+            writer.write(',');
+            writer.write(csv(dimensionService.sectorName(row.sectorId)));
+            writer.write(',');
+            writer.write(csv(dimensionService.regionName(row.regionId)));
+            writer.write(',');
+            writer.write(number(row.esgScore));
+            writer.write('\n');
+        }, writer::flush);
+        writer.flush();
+    }
+
+    private void streamPages(Long portfolioId, RowWriter rowWriter, Flusher flusher) throws IOException {
+        ExportRow row = new ExportRow();
+        long lastId = 0L;
+        try {
+            while (true) {
+                row.count = 0;
+                jdbcTemplate.query(PAGE_SQL, (RowCallbackHandler) rs -> {
+                    row.read(rs);
+                    try {
+                        rowWriter.write(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, portfolioId, lastId, pageSize);
+
+                // Hand the page to the client before fetching the next one
+                flusher.flush();
+                if (row.count < pageSize) {
+                    return;
+                }
+                lastId = row.id;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeNumberOrNull(JsonGenerator gen, String field, Double value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeNumberField(field, value);
+        }
+    }
+
+    private static String number(Double value) {
+        return value == null ? "" : Double.toString(value);
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Mutable cursor row reused for every record of the export.
+     */
+    private static final class ExportRow {
+        long id;
+        String ticker;
+        Double weight;
+        Integer sectorId;
+        Integer regionId;
+        Double esgScore;
+        int count;
+
+        void read(ResultSet rs) throws SQLException {
+            id = rs.getLong(1);
+            ticker = rs.getString(2);
+            weight = nullableDouble(rs, 3);
+            sectorId = nullableInt(rs, 4);
+            regionId = nullableInt(rs, 5);
+            esgScore = nullableDouble(rs, 6);
+            count++;
+        }
+
+        private static Integer nullableInt(ResultSet rs, int column) throws SQLException {
+            int value = rs.getInt(column);
+            return rs.wasNull() ? null : value;
+        }
+
+        private static Double nullableDouble(ResultSet rs, int column) throws SQLException {
+            double value = rs.getDouble(column);
+            return rs.wasNull() ? null : value;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ExportRow row) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Flusher {
+        void flush() throws IOException;
+    }
+}
@@ -0,0 +1,95 @@
+package com.esg.risk.backend.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+import com.esg.risk.backend.dto.LoaderStats;
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.repository.HoldingRepository;
+
+/**
+ * Single-flight loader for portfolio holdings.
+ *
+ * A dashboard opens the ESG, breakdown and stress endpoints at the same
+ * time for the same portfolio. The first caller runs the load; everyone
+ * who asks for that id while it is in flight waits on the same future and
+ * gets the same (read-only) list. Nothing is cached on the heap once the
+ * load completes.
+ *
+ * Loads read the portfolio's {@link HoldingSnapshotStore snapshot} when it is
+ * current and fall back to the DB otherwise, writing a fresh snapshot.
+ */
+@Service
+public class HoldingLoader {
+
+    private final HoldingRepository holdingRepository;
+    private final HoldingSnapshotStore snapshots;
+
+    private final Map<Long, CompletableFuture<List<Holding>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong snapshotHits = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    public HoldingLoader(HoldingRepository holdingRepository, HoldingSnapshotStore snapshots) {
+        this.holdingRepository = holdingRepository;
+        this.snapshots = snapshots;
+    }
+
+    public List<Holding> load(Long portfolioId) {
+        CompletableFuture<List<Holding>> mine = new CompletableFuture<>();
+        CompletableFuture<List<Holding>> existing = inFlight.putIfAbsent(portfolioId, mine);
+        if (existing != null) {
+            deduplicated.incrementAndGet();
+            return await(existing);
+        }
+
+        try {
+            mine.complete(Collections.unmodifiableList(fetch(portfolioId)));
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+        } finally {
+            inFlight.remove(portfolioId, mine);
+        }
+        return await(mine);
+    }
+
+    public LoaderStats stats() {
+        long executed = queries.get();
+        long mapped = snapshotHits.get();
+        long shared = deduplicated.get();
+        return new LoaderStats(executed + mapped + shared, executed, mapped, shared, inFlight.size());
+    }
+
+    private List<Holding> fetch(Long portfolioId) {
+        List<Holding> holdings = snapshots.read(portfolioId);
+        if (holdings != null) {
+            snapshotHits.incrementAndGet();
+            return holdings;
+        }
+        queries.incrementAndGet();
+        holdings = holdingRepository.findByPortfolioId(portfolioId);
+        snapshots.save(portfolioId, holdings);
+        return holdings;
+    }
+
+    private static List<Holding> await(CompletableFuture<List<Holding>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading holdings", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.esg.risk.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Optional RANGE partitioning of the holding table by portfolio_id.
+ *
+ * Each partition holds {@code portfolios-per-partition} consecutive portfolio
+ * ids and is named after its lower bound ({@code p<lo>}). Partitions are kept
+ * {@code ahead} portfolios past the newest one, with an empty MAXVALUE
+ * partition as a safety net, so inserts never wait on DDL. Deleting a
+ * portfolio whose partition holds nothing else is a DROP PARTITION instead of
+ * a row-by-row DELETE. That is only done once every id in the range has been
+ * handed out, so an ingest can never be inserting into the partition being
+ * dropped.
+ *
+ * MySQL caps a table at 8192 partitions, so {@code portfolios-per-partition}
+ * bounds how many portfolios can be partitioned at all. Extending past the
+ * cap is refused with an error in the log; new portfolios then land in the
+ * MAXVALUE partition and are deleted row by row until the width is raised.
+ *
+ * MySQL does not allow foreign keys on partitioned tables and requires the
+ * partition column in every unique key, so enabling this drops the holding
+ * FKs and widens the primary key to (id, portfolio_id). That conversion
+ * rebuilds the table once; later startups only check it is done.
+ */
+@Service
+public class HoldingPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldingPartitionManager.class);
+
+    private static final String PARTITION_BOUNDS_SQL =
+            "SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+                    + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'holding' AND PARTITION_NAME IS NOT NULL";
+
+    private static final String PARTITION_EXISTS_SQL =
+            "SELECT COUNT(*) FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() "
+                    + "AND TABLE_NAME = 'holding' AND PARTITION_NAME = ? AND PARTITION_DESCRIPTION = ?";
+
+    // MySQL allows 8192 partitions per table
+    private static final long MAX_PARTITIONS = 8192;
+    // Leave room to extend after the initial partitioning
+    private static final long MAX_INITIAL_PARTITIONS = 8000;
+
+    private static final String FOREIGN_KEYS_SQL =
+            "SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS "
+                    + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'holding' AND CONSTRAINT_TYPE = 'FOREIGN KEY'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long width;
+    private final long ahead;
+
+    // Exclusive upper bound of the highest finite partition; 0 when not partitioned
+    private long upperBound;
+    // Partitions on the table, including pmax
+    private long partitions;
+
+    public HoldingPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            @Value("${holdings.partitioning.enabled:false}") boolean enabled,
+            @Value("${holdings.partitioning.portfolios-per-partition:100}") long width,
+            @Value("${holdings.partitioning.ahead:64}") long ahead) {
+        if (width < 1) {
+            throw new IllegalArgumentException("holdings.partitioning.portfolios-per-partition must be >= 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.width = width;
+        this.ahead = Math.max(1, ahead);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Before other startup listeners read the holdings table
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void initialize() {
+        if (!enabled) {
+            return;
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM portfolio", Long.class);
+        upperBound = currentUpperBound();
+        if (upperBound == 0) {
+            partitionTable(maxId);
+        } else {
+            ensureCapacity(maxId);
+        }
+    }
+
+    /**
+     * Make sure partitions exist well past {@code portfolioId}. Cheap unless a new
+     * batch of partitions has to be split off the (empty) MAXVALUE partition.
+     */
+    public synchronized void ensureCapacity(long portfolioId) {
+        if (!enabled || upperBound == 0 || portfolioId + ahead / 2 < upperBound) {
+            return;
+        }
+        long target = lowerBound(portfolioId + ahead) + width;
+        long room = MAX_PARTITIONS - partitions;
+        if ((target - upperBound) / width > room) {
+            target = upperBound + room * width;
+        }
+        if (target <= upperBound) {
+            log.error("holding partitions exhausted partitions={} portfolioId={}: new portfolios go to pmax; "
+                    + "raise holdings.partitioning.portfolios-per-partition", partitions, portfolioId);
+            return;
+        }
+        List<String> parts = new ArrayList<>();
+        for (long lo = upperBound; lo < target; lo += width) {
+            parts.add(definition(lo));
+        }
+        parts.add("PARTITION pmax VALUES LESS THAN MAXVALUE");
+        try {
+            jdbcTemplate.execute("ALTER TABLE holding REORGANIZE PARTITION pmax INTO (" + String.join(", ", parts) + ")");
+        } catch (DataAccessException e) {
+            // Rows still land in pmax; the next ingestion tries again
+            log.warn("holding partitions not extended to={} error=\"{}\"", target, e.getMessage());
+            return;
+        }
+        log.info("holding partitions extended from={} to={}", upperBound, target);
+        upperBound = target;
+        partitions += parts.size() - 1;
+    }
+
+    /**
+     * Drop the partition of a portfolio if no other portfolio lives in it and
+     * none ever can.
+     *
+     * @return true if the portfolio's holdings are gone; false if the caller has to delete rows
+     */
+    public synchronized boolean dropPortfolio(long portfolioId) {
+        if (!enabled || upperBound == 0 || portfolioId >= upperBound) {
+            return false;
+        }
+        long lo = lowerBound(portfolioId);
+        // The partition must span exactly this range (the width may have been changed since)
+        Long exists = jdbcTemplate.queryForObject(PARTITION_EXISTS_SQL, Long.class,
+                "p" + lo, Long.toString(lo + width));
+        if (exists == null || exists == 0) {
+            return false;
+        }
+        // Ids are never reused, so once the last id of the range exists no later
+        // ingest can be assigned one inside it
+        Long full = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM portfolio WHERE id >= ?",
+                Long.class, lo + width - 1);
+        if (full == null || full == 0) {
+            return false;
+        }
+        // A locking read waits for ingests still inserting into the range to commit
+        List<Long> others = jdbcTemplate.queryForList(
+                "SELECT id FROM portfolio WHERE id >= ? AND id < ? AND id <> ? FOR UPDATE",
+                Long.class, lo, lo + width, portfolioId);
+        if (!others.isEmpty()) {
+            return false;
+        }
+        jdbcTemplate.execute("ALTER TABLE holding DROP PARTITION p" + lo);
+        partitions--;
+        log.info("holding partition dropped partition=p{} portfolioId={}", lo, portfolioId);
+        return true;
+    }
+
+    private void partitionTable(long maxPortfolioId) {
+        long target = lowerBound(maxPortfolioId + ahead) + width;
+        if (target / width > MAX_INITIAL_PARTITIONS) {
+            throw new IllegalStateException("Partitioning " + maxPortfolioId + " portfolios needs more than "
+                    + MAX_INITIAL_PARTITIONS + " partitions; raise holdings.partitioning.portfolios-per-partition");
+        }
+        log.info("partitioning holding table by portfolio_id width={}", width);
+        for (String fk : jdbcTemplate.queryForList(FOREIGN_KEYS_SQL, String.class)) {
+            jdbcTemplate.execute("ALTER TABLE holding DROP FOREIGN KEY " + fk);
+        }
+        jdbcTemplate.execute("ALTER TABLE holding MODIFY portfolio_id BIGINT NOT NULL, "
+                + "DROP PRIMARY KEY, ADD PRIMARY KEY (id, portfolio_id)");
+
+        List<String> parts = new ArrayList<>();
+        for (long lo = 0; lo < target; lo += width) {
+            parts.add(definition(lo));
+        }
+        parts.add("PARTITION pmax VALUES LESS THAN MAXVALUE");
+        jdbcTemplate.execute("ALTER TABLE holding PARTITION BY RANGE (portfolio_id) ("
+                + String.join(", ", parts) + ")");
+        upperBound = target;
+        partitions = parts.size();
+        log.info("holding table partitioned partitions={}", parts.size());
+    }
+
+    private long currentUpperBound() {
+        long max = 0;
+        List<String> bounds = jdbcTemplate.queryForList(PARTITION_BOUNDS_SQL, String.class);
+        partitions = bounds.size();
+        for (String bound : bounds) {
+            if (bound != null && !"MAXVALUE".equalsIgnoreCase(bound)) {
+                max = Math.max(max, Long.parseLong(bound.trim()));
+            }
+        }
+        return max;
+    }
+
+    private long lowerBound(long portfolioId) {
+        return portfolioId / width * width;
+    }
+
+    private String definition(long lo) {
+        return "PARTITION p" + lo + " VALUES LESS THAN (" + (lo + width) + ")";
+    }
+}
@@ -0,0 +1,205 @@
+package com.esg.risk.backend.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.model.Portfolio;
+
+/**
+ * Read-only, memory-mapped copy of one portfolio's holdings.
+ *
+ * <pre>
+ * int    magic 'ESGS'
+ * short  format version (1)
+ * long   portfolio id
+ * long   portfolio data version the snapshot was taken at
+ * int    row count n
+ * dict   tickers: int count, then per entry: short length + UTF-8 bytes
+ * n x    long      holding id
+ * n x    int       ticker dictionary index (-1 when absent)
+ * n x    double    weight (%, NaN when absent)
+ * n x    int       sector id (0 when absent)
+ * n x    int       region id (0 when absent)
+ * n x    double    ESG score (NaN when absent)
+ * </pre>
+ *
+ * All values are big-endian. Columns are read straight from the mapping;
+ * only the ticker dictionary is decoded onto the heap.
+ */
+public final class HoldingSnapshot {
+
+    static final int MAGIC = 0x45534753; // "ESGS"
+    static final short VERSION = 1;
+
+    private final long portfolioId;
+    private final long dataVersion;
+    private final int rows;
+    private final String[] tickers;
+    private final ByteBuffer data;
+    private final int idOffset;
+    private final int tickerOffset;
+    private final int weightOffset;
+    private final int sectorOffset;
+    private final int regionOffset;
+    private final int esgOffset;
+
+    private HoldingSnapshot(ByteBuffer data) throws IOException {
+        try {
+            if (data.getInt() != MAGIC || data.getShort() != VERSION) {
+                throw new IOException("Not a holding snapshot");
+            }
+            portfolioId = data.getLong();
+            dataVersion = data.getLong();
+            rows = data.getInt();
+            tickers = new String[data.getInt()];
+            for (int i = 0; i < tickers.length; i++) {
+                byte[] bytes = new byte[data.getShort()];
+                data.get(bytes);
+                tickers[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Truncated holding snapshot", e);
+        }
+
+        long rowBytes = Long.BYTES + 3 * Integer.BYTES + 2 * Double.BYTES;
+        if (rows < 0 || data.position() + rows * rowBytes != data.limit()) {
+            throw new IOException("Holding snapshot has " + data.limit() + " bytes, expected rows=" + rows);
+        }
+        idOffset = data.position();
+        tickerOffset = idOffset + rows * Long.BYTES;
+        weightOffset = tickerOffset + rows * Integer.BYTES;
+        sectorOffset = weightOffset + rows * Double.BYTES;
+        regionOffset = sectorOffset + rows * Integer.BYTES;
+        esgOffset = regionOffset + rows * Integer.BYTES;
+        this.data = data;
+    }
+
+    /**
+     * Map a snapshot file. The mapping stays valid after the file is replaced
+     * or deleted.
+     */
+    public static HoldingSnapshot map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new HoldingSnapshot(buffer);
+        }
+    }
+
+    /**
+     * Write {@code holdings} to {@code file}, replacing it atomically.
+     */
+    public static void write(Path file, long portfolioId, long dataVersion, List<Holding> holdings)
+            throws IOException {
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream target = Files.newOutputStream(tmp)) {
+                write(target, portfolioId, dataVersion, holdings);
+            }
+            // Readers see either the old file or the complete new one
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    static void write(OutputStream target, long portfolioId, long dataVersion, List<Holding> holdings)
+            throws IOException {
+        List<String> dictionary = new ArrayList<>();
+        Map<String, Integer> ids = new HashMap<>();
+        int[] tickerIdx = new int[holdings.size()];
+        for (int i = 0; i < tickerIdx.length; i++) {
+            String ticker = holdings.get(i).getTicker();
+            tickerIdx[i] = ticker == null ? -1 : ids.computeIfAbsent(ticker, k -> {
+                dictionary.add(k);
+                return dictionary.size() - 1;
+            });
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target, 64 * 1024));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(portfolioId);
+        out.writeLong(dataVersion);
+        out.writeInt(holdings.size());
+        out.writeInt(dictionary.size());
+        for (String ticker : dictionary) {
+            byte[] bytes = ticker.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Ticker too long: " + ticker.substring(0, 32) + "...");
+            }
+            out.writeShort(bytes.length);
+            out.write(bytes);
+        }
+        for (Holding h : holdings) {
+            out.writeLong(h.getId() == null ? 0 : h.getId());
+        }
+        for (int idx : tickerIdx) {
+            out.writeInt(idx);
+        }
+        for (Holding h : holdings) {
+            out.writeDouble(h.getWeight() == null ? Double.NaN : h.getWeight());
+        }
+        for (Holding h : holdings) {
+            out.writeInt(h.getSectorId() == null ? 0 : h.getSectorId());
+        }
+        for (Holding h : holdings) {
+            out.writeInt(h.getRegionId() == null ? 0 : h.getRegionId());
+        }
+        for (Holding h : holdings) {
+            out.writeDouble(h.getEsgScore() == null ? Double.NaN : h.getEsgScore());
+        }
+        out.flush();
+    }
+
+    public long portfolioId() {
+        return portfolioId;
+    }
+
+    public long dataVersion() {
+        return dataVersion;
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Holdings as the repository would return them, attached to {@code portfolio}.
+     */
+    public List<Holding> holdings(Portfolio portfolio) {
+        List<Holding> holdings = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Holding h = new Holding();
+            h.setPortfolio(portfolio);
+            long id = data.getLong(idOffset + i * Long.BYTES);
+            h.setId(id == 0 ? null : id);
+            int ticker = data.getInt(tickerOffset + i * Integer.BYTES);
+            h.setTicker(ticker < 0 ? null : tickers[ticker]);
+            double weight = data.getDouble(weightOffset + i * Double.BYTES);
+            h.setWeight(Double.isNaN(weight) ? null : weight);
+            int sector = data.getInt(sectorOffset + i * Integer.BYTES);
+            h.setSectorId(sector == 0 ? null : sector);
+            int region = data.getInt(regionOffset + i * Integer.BYTES);
+            h.setRegionId(region == 0 ? null : region);
+            double esg = data.getDouble(esgOffset + i * Double.BYTES);
+            h.setEsgScore(Double.isNaN(esg) ? null : esg);
+            holdings.add(h);
+        }
+        return holdings;
+    }
+}
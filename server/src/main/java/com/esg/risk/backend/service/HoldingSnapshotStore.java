@@ -0,0 +1,253 @@
+package com.esg.risk.backend.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.model.Portfolio;
+
+/**
+ * Local {@link HoldingSnapshot} files, one per portfolio, so a restarted
+ * instance serves holdings without querying and hydrating them from MySQL.
+ *
+ * A snapshot is written when a portfolio is ingested, and again whenever
+ * holdings had to be loaded from the DB. It is only used while its data
+ * version matches {@code portfolio.data_version}: checked for every file at
+ * startup and again on every read, so a portfolio rewritten by another
+ * instance is never served from an old mapping. Stale or unreadable files are
+ * deleted and rebuilt on the next DB load. data_version is a
+ * random token rather than a counter, so a file left behind by an earlier
+ * portfolio that had the same id (after a DB reset or restore) does not match
+ * either. Anything that rewrites a portfolio's holdings must write a new token
+ * and call {@link #remove}.
+ *
+ * Mappings of the most recently used portfolios are kept open; they live
+ * outside the heap and are paged in by the OS.
+ *
+ * The store is off unless {@code holdings.snapshot.dir} names a directory.
+ * It should be on a persistent volume: snapshots in a directory that is
+ * wiped on restart only cost disk writes.
+ */
+@Service
+public class HoldingSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldingSnapshotStore.class);
+
+    private static final String PREFIX = "portfolio-";
+    private static final String SUFFIX = ".snap";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Path dir;
+    private final Map<Long, HoldingSnapshot> mapped;
+
+    public HoldingSnapshotStore(
+            JdbcTemplate jdbcTemplate,
+            @Value("${holdings.snapshot.enabled:true}") boolean enabled,
+            @Value("${holdings.snapshot.dir:}") String dir,
+            @Value("${holdings.snapshot.max-mapped:4096}") int maxMapped) {
+        this.jdbcTemplate = jdbcTemplate;
+        boolean configured = dir != null && !dir.isBlank();
+        if (enabled && !configured) {
+            log.info("holding snapshots disabled, holdings.snapshot.dir is not set");
+        }
+        this.dir = configured ? Paths.get(dir) : null;
+        this.enabled = enabled && configured && createDir(this.dir);
+        int capacity = Math.max(1, maxMapped);
+        this.mapped = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, HoldingSnapshot> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * Map every snapshot on disk that is still current and delete the rest.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Map<Long, Long> versions = new HashMap<>();
+        try {
+            jdbcTemplate.query("SELECT id, data_version FROM portfolio",
+                    (RowCallbackHandler) rs -> versions.put(rs.getLong(1), rs.getLong(2)));
+        } catch (DataAccessException e) {
+            log.warn("holding snapshots not warmed: {}", e.getMessage());
+            return;
+        }
+
+        int loaded = 0;
+        int discarded = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                Long portfolioId = portfolioIdOf(file);
+                HoldingSnapshot snapshot = portfolioId == null
+                        ? null
+                        : open(file, portfolioId, versions.get(portfolioId));
+                if (snapshot != null) {
+                    mapped.put(portfolioId, snapshot);
+                    loaded++;
+                } else {
+                    Files.deleteIfExists(file);
+                    discarded++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("holding snapshots not warmed: {}", e.getMessage());
+        }
+        log.info("holding snapshots mapped={} discarded={} dir={} ms={}",
+                loaded, discarded, dir, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Holdings from the portfolio's snapshot, or null if there is no current one.
+     *
+     * The version is checked against the DB on every call; that is a primary
+     * key lookup of one column, far cheaper than the holdings query it saves.
+     * The rows are decoded into a new list of detached {@link Holding}s each
+     * time, because every caller works on entities. What the snapshot saves is
+     * the query and the JDBC/Hibernate hydration, not the list itself; the
+     * list is short-lived and shared by concurrent callers through
+     * {@link HoldingLoader}.
+     */
+    public List<Holding> read(Long portfolioId) {
+        if (!enabled) {
+            return null;
+        }
+        Long currentVersion = currentVersion(portfolioId);
+        HoldingSnapshot snapshot = mapped.get(portfolioId);
+        if (snapshot != null && (currentVersion == null || snapshot.dataVersion() != currentVersion)) {
+            // Rewritten or deleted since it was mapped, possibly by another instance
+            mapped.remove(portfolioId, snapshot);
+            snapshot = null;
+        }
+        if (snapshot == null) {
+            Path file = fileOf(portfolioId);
+            if (!Files.exists(file)) {
+                return null;
+            }
+            snapshot = open(file, portfolioId, currentVersion);
+            if (snapshot == null) {
+                delete(file);
+                return null;
+            }
+            mapped.put(portfolioId, snapshot);
+        }
+        Portfolio portfolio = new Portfolio();
+        portfolio.setId(portfolioId);
+        portfolio.setDataVersion(snapshot.dataVersion());
+        return snapshot.holdings(portfolio);
+    }
+
+    /**
+     * Snapshot holdings just loaded from the DB, at the version of the
+     * portfolio they were loaded with.
+     */
+    public void save(Long portfolioId, List<Holding> holdings) {
+        if (holdings.isEmpty() || holdings.get(0).getPortfolio() == null) {
+            return;
+        }
+        save(portfolioId, holdings.get(0).getPortfolio().getDataVersion(), holdings);
+    }
+
+    public void save(Long portfolioId, long dataVersion, List<Holding> holdings) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Path file = fileOf(portfolioId);
+        try {
+            HoldingSnapshot.write(file, portfolioId, dataVersion, holdings);
+            mapped.put(portfolioId, HoldingSnapshot.map(file));
+            log.debug("holding snapshot written portfolioId={} rows={} ms={}",
+                    portfolioId, holdings.size(), System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            // Snapshots are a cache; the DB stays the source of truth
+            log.warn("holding snapshot not written portfolioId={} error=\"{}\"", portfolioId, e.getMessage());
+            mapped.remove(portfolioId);
+        }
+    }
+
+    public void remove(Long portfolioId) {
+        if (!enabled) {
+            return;
+        }
+        mapped.remove(portfolioId);
+        delete(fileOf(portfolioId));
+    }
+
+    private HoldingSnapshot open(Path file, long portfolioId, Long currentVersion) {
+        if (currentVersion == null) {
+            return null; // portfolio deleted
+        }
+        try {
+            HoldingSnapshot snapshot = HoldingSnapshot.map(file);
+            if (snapshot.portfolioId() != portfolioId || snapshot.dataVersion() != currentVersion) {
+                return null;
+            }
+            return snapshot;
+        } catch (IOException e) {
+            log.warn("holding snapshot unreadable file={} error=\"{}\"", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private Long currentVersion(Long portfolioId) {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT data_version FROM portfolio WHERE id = ?", Long.class, portfolioId);
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    private Path fileOf(Long portfolioId) {
+        return dir.resolve(PREFIX + portfolioId + SUFFIX);
+    }
+
+    private static Long portfolioIdOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.valueOf(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("holding snapshot not deleted file={} error=\"{}\"", file, e.getMessage());
+        }
+    }
+
+    private static boolean createDir(Path dir) {
+        try {
+            Files.createDirectories(dir);
+            return true;
+        } catch (IOException e) {
+            log.warn("holding snapshots disabled, cannot create {}: {}", dir, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.esg.risk.backend.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.esg.risk.backend.dto.MetricHistory;
+import com.esg.risk.backend.dto.MetricPoint;
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.model.MetricSeriesChunk;
+import com.esg.risk.backend.model.Portfolio;
+import com.esg.risk.backend.repository.MetricSeriesChunkRepository;
+
+/**
+ * Daily ESG score and sector exposure history per portfolio series.
+ *
+ * Every portfolio has its own series unless the upload named one, so daily
+ * re-uploads of the same portfolio extend one history when they pass the
+ * same series name. Points are kept in yearly chunks
+ * (see {@link MetricSeriesCodec}); a range query reads one small row per
+ * year and never touches holdings.
+ */
+@Service
+public class MetricHistoryService {
+
+    public static final String ESG = "esg";
+    private static final String SECTOR_PREFIX = "sector:";
+    private static final int MAX_SERIES_LENGTH = 255;
+
+    private final MetricSeriesChunkRepository chunkRepo;
+    private final ESGService esgService;
+    private final BreakdownService breakdownService;
+
+    public MetricHistoryService(
+            MetricSeriesChunkRepository chunkRepo,
+            ESGService esgService,
+            BreakdownService breakdownService) {
+        this.chunkRepo = chunkRepo;
+        this.esgService = esgService;
+        this.breakdownService = breakdownService;
+    }
+
+    public static String sectorMetric(Integer sectorId) {
+        return SECTOR_PREFIX + sectorId;
+    }
+
+    /**
+     * Series key of a series name given on upload: trimmed and lower case, or
+     * null if none was given.
+     */
+    public static String seriesKey(String series) {
+        if (series == null || series.isBlank()) {
+            return null;
+        }
+        String key = series.trim().toLowerCase(Locale.ROOT);
+        if (key.length() > MAX_SERIES_LENGTH) {
+            throw new IllegalArgumentException("Series name must be at most " + MAX_SERIES_LENGTH + " characters");
+        }
+        return key;
+    }
+
+    /**
+     * Series key a portfolio's history is recorded under.
+     */
+    public static String seriesKey(Portfolio portfolio) {
+        return portfolio.getSeriesKey() != null ? portfolio.getSeriesKey() : "portfolio-" + portfolio.getId();
+    }
+
+    /**
+     * Record the ESG score and sector exposures of an upload for {@code day}.
+     * Recording the same day again replaces that day's values.
+     */
+    public synchronized void record(String key, LocalDate day, List<Holding> holdings) {
+        double totalWeight = holdings.stream().mapToDouble(Holding::getWeight).sum();
+
+        Map<String, Double> values = new HashMap<>();
+        values.put(ESG, totalWeight == 0 ? 0.0 : esgService.calculateEsg(holdings));
+        if (totalWeight != 0) {
+            breakdownService.sectorWeights(holdings).forEach((sectorId, weight) -> {
+                if (sectorId != null) {
+                    values.put(sectorMetric(sectorId), weight / totalWeight * 100);
+                }
+            });
+        }
+
+        Map<String, MetricSeriesChunk> chunks = new HashMap<>();
+        for (MetricSeriesChunk chunk : chunkRepo.findBySeriesKeyAndPeriod(key, day.getYear())) {
+            chunks.put(chunk.getMetric(), chunk);
+            // A sector that is no longer held drops to zero rather than leaving a gap
+            values.putIfAbsent(chunk.getMetric(), 0.0);
+        }
+
+        int epochDay = (int) day.toEpochDay();
+        List<MetricSeriesChunk> changed = new ArrayList<>(values.size());
+        values.forEach((metric, value) -> {
+            MetricSeriesChunk chunk = chunks.get(metric);
+            if (chunk == null) {
+                chunk = new MetricSeriesChunk();
+                chunk.setSeriesKey(key);
+                chunk.setMetric(metric);
+                chunk.setPeriod(day.getYear());
+                chunk.setFirstDay(epochDay);
+                chunk.setLastDay(epochDay);
+            }
+            append(chunk, epochDay, MetricSeriesCodec.toFixed(value));
+            changed.add(chunk);
+        });
+        chunkRepo.saveAll(changed);
+    }
+
+    private static void append(MetricSeriesChunk chunk, int day, long value) {
+        if (chunk.getPoints() > 0 && day == chunk.getLastDay()) {
+            MetricSeriesCodec.Points points =
+                    MetricSeriesCodec.decode(chunk.getData(), chunk.getFirstDay(), chunk.getPoints());
+            points.values()[points.size() - 1] = value;
+            chunk.setData(MetricSeriesCodec.encode(chunk.getFirstDay(), points.days(), points.values(), points.size()));
+        } else {
+            chunk.setData(MetricSeriesCodec.append(chunk.getData(), chunk.getLastDay(), chunk.getLastValue(), day, value));
+            chunk.setPoints(chunk.getPoints() + 1);
+        }
+        chunk.setLastDay(day);
+        chunk.setLastValue(value);
+    }
+
+    /**
+     * Points of one metric between {@code from} and {@code to} (inclusive), averaged per
+     * day, week (starting Monday) or month.
+     */
+    public MetricHistory history(String key, String metric, LocalDate from, LocalDate to, String interval) {
+        String bucketing = interval.toLowerCase(Locale.ROOT);
+        if (!bucketing.equals("daily") && !bucketing.equals("weekly") && !bucketing.equals("monthly")) {
+            throw new IllegalArgumentException("Unknown interval: " + interval);
+        }
+
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        List<MetricPoint> result = new ArrayList<>();
+        LocalDate bucket = null;
+        double sum = 0;
+        int count = 0;
+
+        for (MetricSeriesChunk chunk : chunkRepo.findBySeriesKeyAndMetricAndPeriodBetweenOrderByPeriod(
+                key, metric, from.getYear(), to.getYear())) {
+            MetricSeriesCodec.Points points =
+                    MetricSeriesCodec.decode(chunk.getData(), chunk.getFirstDay(), chunk.getPoints());
+            for (int i = 0; i < points.size(); i++) {
+                int day = points.days()[i];
+                if (day < fromDay || day > toDay) {
+                    continue;
+                }
+                LocalDate date = bucketStart(LocalDate.ofEpochDay(day), bucketing);
+                if (!date.equals(bucket)) {
+                    if (count > 0) {
+                        result.add(new MetricPoint(bucket, sum / count));
+                    }
+                    bucket = date;
+                    sum = 0;
+                    count = 0;
+                }
+                sum += MetricSeriesCodec.fromFixed(points.values()[i]);
+                count++;
+            }
+        }
+        if (count > 0) {
+            result.add(new MetricPoint(bucket, sum / count));
+        }
+        return new MetricHistory(key, metric, bucketing, result);
+    }
+
+    private static LocalDate bucketStart(LocalDate date, String interval) {
+        switch (interval) {
+            case "weekly":
+                return date.with(DayOfWeek.MONDAY);
+            case "monthly":
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+        }
+    }
+}
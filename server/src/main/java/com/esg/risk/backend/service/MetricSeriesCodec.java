@@ -0,0 +1,128 @@
+package com.esg.risk.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Compact encoding for a chunk of daily metric points.
+ *
+ * Each point is stored as the day delta to the previous point followed by
+ * the zigzag-encoded delta of its fixed-point value (4 decimals), both as
+ * unsigned LEB128 varints. A daily series of slowly moving scores takes
+ * around 2-3 bytes per point.
+ */
+public final class MetricSeriesCodec {
+
+    public static final double SCALE = 10_000.0;
+
+    private MetricSeriesCodec() {
+    }
+
+    public static long toFixed(double value) {
+        return Math.round(value * SCALE);
+    }
+
+    public static double fromFixed(long value) {
+        return value / SCALE;
+    }
+
+    /**
+     * Append one point to {@code data}, given the last point already encoded in it.
+     * For an empty chunk, pass the chunk's first day and 0.
+     */
+    public static byte[] append(byte[] data, int previousDay, long previousValue, int day, long value) {
+        if (day < previousDay) {
+            throw new IllegalArgumentException("Points must be appended in day order");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16);
+        if (data != null) {
+            out.writeBytes(data);
+        }
+        writeVarint(out, day - previousDay);
+        writeVarint(out, zigzag(value - previousValue));
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode {@code count} points of a chunk starting at {@code firstDay}.
+     */
+    public static Points decode(byte[] data, int firstDay, int count) {
+        int[] days = new int[count];
+        long[] values = new long[count];
+        int pos = 0;
+        int day = firstDay;
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            long dayDelta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                dayDelta |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            long valueDelta = 0;
+            shift = 0;
+            do {
+                b = data[pos++];
+                valueDelta |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            day += (int) dayDelta;
+            value += (valueDelta >>> 1) ^ -(valueDelta & 1);
+            days[i] = day;
+            values[i] = value;
+        }
+        return new Points(days, values);
+    }
+
+    /**
+     * Re-encode decoded points, e.g. after replacing the last one.
+     */
+    public static byte[] encode(int firstDay, int[] days, long[] values, int count) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(count * 3);
+        int previousDay = firstDay;
+        long previousValue = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarint(out, days[i] - previousDay);
+            writeVarint(out, zigzag(values[i] - previousValue));
+            previousDay = days[i];
+            previousValue = values[i];
+        }
+        return out.toByteArray();
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7fL) != 0) {
+            out.write((int) ((v & 0x7f) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    /**
+     * Decoded chunk: epoch days and fixed-point values.
+     */
+    public record Points(int[] days, long[] values) {
+
+        public int size() {
+            return days.length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Points p && Arrays.equals(days, p.days) && Arrays.equals(values, p.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(days) + Arrays.hashCode(values);
+        }
+    }
+}
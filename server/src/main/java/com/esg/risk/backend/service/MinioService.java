@@ -1,6 +1,8 @@
 package com.esg.risk.backend.service;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -10,6 +12,10 @@ import io.minio.GetObjectArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
 
 @Service
 public class MinioService {
@@ -56,4 +62,36 @@ public class MinioService {
                         .build()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Delete objects with one bulk request (at most 1000 names).
+     *
+     * @return the names that could not be deleted
+     */
+    public List<String> removeFiles(List<String> objectNames) throws Exception {
+        if (objectNames.isEmpty()) {
+            return List.of();
+        }
+        List<DeleteObject> objects = new ArrayList<>(objectNames.size());
+        for (String name : objectNames) {
+            objects.add(new DeleteObject(name));
+        }
+
+        Iterable<Result<DeleteError>> results = minioClient.removeObjects(
+                RemoveObjectsArgs.builder()
+                        .bucket(bucketName)
+                        .objects(objects)
+                        .build()
+        );
+
+        // The request is only sent while the results are iterated
+        List<String> failed = new ArrayList<>();
+        for (Result<DeleteError> result : results) {
+            DeleteError error = result.get();
+            if (!"NoSuchKey".equals(error.code())) {
+                failed.add(error.objectName());
+            }
+        }
+        return failed;
+    }
+}
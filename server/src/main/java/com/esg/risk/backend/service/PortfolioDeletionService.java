@@ -0,0 +1,144 @@
+package com.esg.risk.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.esg.risk.backend.model.Portfolio;
+import com.esg.risk.backend.model.Report;
+import com.esg.risk.backend.repository.IngestionReportRepository;
+import com.esg.risk.backend.repository.PortfolioRepository;
+import com.esg.risk.backend.repository.ReportRepository;
+
+/**
+ * Removes a portfolio with its holdings, reports and stored files.
+ *
+ * The uploaded file and the report workbooks are removed from MinIO first,
+ * so rows are never deleted while their objects are left behind. Holdings go
+ * next: as a partition drop when the table is partitioned and the portfolio
+ * has its partition to itself, otherwise in bounded DELETE batches that each
+ * commit, so no single statement locks or logs millions of rows. A failure
+ * part-way leaves the portfolio row in place and the delete can simply be
+ * retried.
+ *
+ * The portfolio's own metric history goes with it; a named series it was
+ * uploaded into belongs to the series and is kept. Batch report items keep
+ * their record of the run but no longer point at the deleted reports.
+ */
+@Service
+public class PortfolioDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioDeletionService.class);
+
+    private final PortfolioRepository portfolioRepo;
+    private final ReportRepository reportRepo;
+    private final IngestionReportRepository ingestionReportRepo;
+    private final HoldingPartitionManager partitionManager;
+    private final PortfolioMetricsIndex portfolioMetricsIndex;
+    private final HoldingSnapshotStore holdingSnapshots;
+    private final MinioService minioService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public PortfolioDeletionService(
+            PortfolioRepository portfolioRepo,
+            ReportRepository reportRepo,
+            IngestionReportRepository ingestionReportRepo,
+            HoldingPartitionManager partitionManager,
+            PortfolioMetricsIndex portfolioMetricsIndex,
+            HoldingSnapshotStore holdingSnapshots,
+            MinioService minioService,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${holdings.delete-batch-size:10000}") int batchSize) {
+        this.portfolioRepo = portfolioRepo;
+        this.reportRepo = reportRepo;
+        this.ingestionReportRepo = ingestionReportRepo;
+        this.partitionManager = partitionManager;
+        this.portfolioMetricsIndex = portfolioMetricsIndex;
+        this.holdingSnapshots = holdingSnapshots;
+        this.minioService = minioService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * @return false if there is no such portfolio
+     */
+    public boolean delete(Long portfolioId) {
+        Optional<Portfolio> portfolio = portfolioRepo.findById(portfolioId);
+        if (portfolio.isEmpty()) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+
+        List<String> objects = new ArrayList<>();
+        if (portfolio.get().getS3Path() != null) {
+            objects.add(portfolio.get().getS3Path());
+        }
+        for (Report report : reportRepo.findByPortfolioId(portfolioId)) {
+            if (report.getS3Path() != null) {
+                objects.add(report.getS3Path());
+            }
+        }
+        removeObjects(portfolioId, objects);
+
+        boolean dropped = partitionManager.dropPortfolio(portfolioId);
+        long rows = dropped ? 0 : deleteHoldings(portfolioId);
+
+        String ownSeries = portfolio.get().getSeriesKey() == null
+                ? MetricHistoryService.seriesKey(portfolio.get())
+                : null;
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE report_batch_item SET report_id = NULL "
+                    + "WHERE portfolio_id = ? AND report_id IS NOT NULL", portfolioId);
+            if (ownSeries != null) {
+                jdbcTemplate.update("DELETE FROM metric_series_chunk WHERE series_key = ?", ownSeries);
+            }
+            reportRepo.deleteByPortfolioId(portfolioId);
+            ingestionReportRepo.deleteByPortfolioId(portfolioId);
+            portfolioRepo.deleteById(portfolioId);
+        });
+        portfolioMetricsIndex.remove(portfolioId);
+        holdingSnapshots.remove(portfolioId);
+
+        log.info("deleted portfolioId={} partitionDropped={} holdingRows={} objects={} ms={}",
+                portfolioId, dropped, rows, objects.size(), System.currentTimeMillis() - start);
+        return true;
+    }
+
+    private void removeObjects(Long portfolioId, List<String> objects) {
+        List<String> failed = new ArrayList<>();
+        try {
+            // Bulk deletes take at most 1000 names
+            for (int from = 0; from < objects.size(); from += 1000) {
+                failed.addAll(minioService.removeFiles(objects.subList(from, Math.min(from + 1000, objects.size()))));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Portfolio " + portfolioId + " not deleted: " + e.getMessage(), e);
+        }
+        if (!failed.isEmpty()) {
+            throw new RuntimeException("Portfolio " + portfolioId + " not deleted: could not remove " + failed);
+        }
+    }
+
+    private long deleteHoldings(Long portfolioId) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM holding WHERE portfolio_id = ? LIMIT ?", portfolioId, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,329 @@
+package com.esg.risk.backend.service;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.esg.risk.backend.dto.IngestionResult;
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.model.IngestionReport;
+import com.esg.risk.backend.model.Portfolio;
+import com.esg.risk.backend.repository.HoldingRepository;
+import com.esg.risk.backend.repository.IngestionReportRepository;
+import com.esg.risk.backend.repository.PortfolioRepository;
+import com.esg.risk.backend.service.reader.PortfolioReader;
+import com.esg.risk.backend.service.reader.PortfolioReaders;
+import com.esg.risk.backend.service.reader.PortfolioRow;
+import com.esg.risk.backend.service.reader.PortfolioRowSink;
+import com.esg.risk.backend.service.reader.RejectReason;
+
+/**
+ * Stores, parses and persists uploaded portfolio files.
+ *
+ * Files are identified by the SHA-256 of their content. They are stored
+ * under a content-addressed object key, and a file whose hash was already
+ * ingested resolves to the existing portfolio without being parsed or
+ * stored again.
+ *
+ * Rows that fail validation are collected into an {@link IngestionReport}
+ * saved with the portfolio. Only a sample of them is logged.
+ */
+@Service
+public class PortfolioIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioIngestionService.class);
+
+    private final PortfolioRepository portfolioRepo;
+    private final HoldingRepository holdingRepo;
+    private final IngestionReportRepository ingestionReportRepo;
+    private final DimensionService dimensionService;
+    private final PortfolioMetricsIndex portfolioMetricsIndex;
+    private final MetricHistoryService metricHistoryService;
+    private final HoldingLoader holdingLoader;
+    private final HoldingSnapshotStore holdingSnapshots;
+    private final HoldingPartitionManager partitionManager;
+    private final TickerReferenceService tickerReferenceService;
+    private final PortfolioReaders readers;
+    private final MinioService minioService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ingest.rejections.max-detailed:10000}")
+    private int maxDetailedRejections;
+
+    @Value("${ingest.rejections.log-first:20}")
+    private int logFirstRejections;
+
+    @Value("${ingest.rejections.log-every:1000}")
+    private int logEveryRejection;
+
+    public PortfolioIngestionService(
+            PortfolioRepository portfolioRepo,
+            HoldingRepository holdingRepo,
+            IngestionReportRepository ingestionReportRepo,
+            DimensionService dimensionService,
+            PortfolioMetricsIndex portfolioMetricsIndex,
+            MetricHistoryService metricHistoryService,
+            HoldingLoader holdingLoader,
+            HoldingSnapshotStore holdingSnapshots,
+            HoldingPartitionManager partitionManager,
+            TickerReferenceService tickerReferenceService,
+            PortfolioReaders readers,
+            MinioService minioService,
+            PlatformTransactionManager transactionManager) {
+        this.portfolioRepo = portfolioRepo;
+        this.holdingRepo = holdingRepo;
+        this.ingestionReportRepo = ingestionReportRepo;
+        this.dimensionService = dimensionService;
+        this.portfolioMetricsIndex = portfolioMetricsIndex;
+        this.metricHistoryService = metricHistoryService;
+        this.holdingLoader = holdingLoader;
+        this.holdingSnapshots = holdingSnapshots;
+        this.partitionManager = partitionManager;
+        this.tickerReferenceService = tickerReferenceService;
+        this.readers = readers;
+        this.minioService = minioService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isSupported(String fileName, String contentType) {
+        return readers.find(fileName, contentType) != null;
+    }
+
+    /**
+     * Content type to store a file under, based on the reader that will parse it.
+     */
+    private String contentTypeOf(String fileName, String contentType) {
+        return readers.select(fileName, contentType).contentTypes().get(0);
+    }
+
+    /**
+     * Store a new upload under its content hash and ingest it, unless the same
+     * content has been ingested before.
+     *
+     * {@code source} is read up to three times: once for the hash, which the
+     * object key and the duplicate check need before anything is uploaded,
+     * then for the upload and the parse of new content.
+     */
+    public IngestionResult store(String fileName, String contentType, long size, InputStreamSource source)
+            throws Exception {
+        return store(fileName, contentType, size, null, source);
+    }
+
+    /**
+     * @param series history series to record the upload in (see {@link MetricHistoryService});
+     *               null for a series of the portfolio's own
+     */
+    public IngestionResult store(String fileName, String contentType, long size, String series,
+            InputStreamSource source) throws Exception {
+        long start = System.currentTimeMillis();
+        String type = contentTypeOf(fileName, contentType);
+        String seriesKey = MetricHistoryService.seriesKey(series);
+        String hash = sha256(source);
+
+        Optional<Portfolio> existing = portfolioRepo.findByContentHash(hash);
+        if (existing.isPresent()) {
+            return duplicate(new IngestionResult(fileName), existing.get(), seriesKey, start);
+        }
+
+        String objectName = "portfolio/" + hash + extension(fileName);
+        try (InputStream in = source.getInputStream()) {
+            minioService.uploadFile(objectName, in, size, type);
+        }
+        return ingest(fileName, type, objectName, hash, seriesKey, source);
+    }
+
+    /**
+     * Ingest a file that is already in the bucket at {@code objectKey}. It is
+     * hashed in a separate read before parsing, as in {@link #store}.
+     */
+    public IngestionResult ingestStored(String fileName, String objectKey, InputStreamSource source)
+            throws Exception {
+        long start = System.currentTimeMillis();
+        String hash = sha256(source);
+
+        Optional<Portfolio> existing = portfolioRepo.findByContentHash(hash);
+        if (existing.isPresent()) {
+            return duplicate(new IngestionResult(fileName), existing.get(), null, start);
+        }
+        return ingest(fileName, null, objectKey, hash, null, source);
+    }
+
+    private IngestionResult ingest(String fileName, String contentType, String s3Path, String contentHash,
+            String seriesKey, InputStreamSource source) throws Exception {
+        PortfolioReader reader = readers.select(fileName, contentType);
+        IngestionResult result = new IngestionResult(fileName);
+        long start = System.currentTimeMillis();
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName(fileName);
+        portfolio.setS3Path(s3Path);
+        portfolio.setUploadDate(LocalDate.now());
+        portfolio.setContentHash(contentHash);
+        portfolio.setSeriesKey(seriesKey);
+        portfolio.setDataVersion(newDataVersion());
+
+        // Parse before opening the transaction so no connection is held while parsing
+        RejectionCollector rejections = new RejectionCollector(maxDetailedRejections);
+        List<Holding> holdings = parse(reader, source, portfolio, rejections);
+        long parsed = System.currentTimeMillis();
+
+        IngestionReport report = new IngestionReport();
+        report.setFileName(fileName);
+        report.setCreatedAt(LocalDateTime.now());
+        report.setAcceptedRows(holdings.size());
+        report.setRejectedRows(rejections.rejected());
+        report.setTotalRows(holdings.size() + rejections.rejected());
+        report.setReasonCounts(rejections.reasonCounts());
+        report.setRejections(rejections.finish());
+        report.setTruncated(rejections.truncated());
+
+        Portfolio savedPortfolio;
+        try {
+            // One transaction, so a failed insert never leaves a hash pointing at a partial portfolio
+            savedPortfolio = transactionTemplate.execute(status -> {
+                Portfolio saved = portfolioRepo.save(portfolio);
+                holdingRepo.saveAll(holdings);
+                report.setPortfolioId(saved.getId());
+                ingestionReportRepo.save(report);
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent upload of the same content won the race
+            Portfolio winner = portfolioRepo.findByContentHash(contentHash).orElseThrow(() -> e);
+            return duplicate(result, winner, seriesKey, start);
+        }
+
+        // Stay ahead of the portfolio ids so later inserts never wait on partition DDL
+        partitionManager.ensureCapacity(savedPortfolio.getId());
+        portfolioMetricsIndex.update(savedPortfolio, holdings);
+        holdingSnapshots.save(savedPortfolio.getId(), savedPortfolio.getDataVersion(), holdings);
+        recordHistory(MetricHistoryService.seriesKey(savedPortfolio), holdings);
+        long done = System.currentTimeMillis();
+        log.info("ingested file={} portfolioId={} format={} accepted={} rejected={} reasons={} parseMs={} persistMs={}",
+                fileName, savedPortfolio.getId(), reader.format(), holdings.size(), rejections.rejected(),
+                report.getReasonCounts(), parsed - start, done - parsed);
+
+        result.setStatus(IngestionResult.OK);
+        result.setPortfolio(savedPortfolio);
+        result.setPortfolioId(savedPortfolio.getId());
+        result.setHoldings(holdings.size());
+        result.setRejectedRows(rejections.rejected());
+        result.setParseMillis(parsed - start);
+        result.setPersistMillis(done - parsed);
+        result.setTotalMillis(done - start);
+        return result;
+    }
+
+    private IngestionResult duplicate(IngestionResult result, Portfolio existing, String seriesKey, long start) {
+        log.info("duplicate file={} portfolioId={}", result.getFileName(), existing.getId());
+        // Unchanged content is still today's value of the series it was uploaded into
+        recordHistory(seriesKey != null ? seriesKey : MetricHistoryService.seriesKey(existing),
+                holdingLoader.load(existing.getId()));
+        result.setStatus(IngestionResult.OK);
+        result.setDuplicate(true);
+        result.setPortfolio(existing);
+        result.setPortfolioId(existing.getId());
+        result.setTotalMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private void recordHistory(String seriesKey, List<Holding> holdings) {
+        try {
+            metricHistoryService.record(seriesKey, LocalDate.now(), holdings);
+        } catch (RuntimeException e) {
+            // History is derived data; never fail an upload over it
+            log.warn("history not recorded series={} error=\"{}\"", seriesKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Random data version for newly written holdings (see {@link HoldingSnapshotStore}),
+     * never the column default 1.
+     */
+    private static long newDataVersion() {
+        long version;
+        do {
+            version = ThreadLocalRandom.current().nextLong();
+        } while (version == 1);
+        return version;
+    }
+
+    private static String sha256(InputStreamSource source) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = new DigestInputStream(source.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String extension(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        int dot = fileName.lastIndexOf('.');
+        String ext = dot < 0 ? "" : fileName.substring(dot).toLowerCase(Locale.ROOT);
+        return ext.matches("\\.[a-z0-9]{1,8}") ? ext : "";
+    }
+
+    private List<Holding> parse(PortfolioReader reader, InputStreamSource source, Portfolio portfolio,
+            RejectionCollector rejections) throws Exception {
+        List<Holding> holdings = new ArrayList<>();
+
+        PortfolioRowSink sink = new PortfolioRowSink() {
+            @Override
+            public void accept(PortfolioRow row) {
+                Holding h = new Holding();
+                h.setPortfolio(portfolio);
+
+                h.setTicker(row.getTicker());
+                h.setWeight(row.getWeight() * 100);
+                h.setSectorId(dimensionService.sectorId(row.getSector()));
+                h.setRegionId(dimensionService.regionId(row.getRegion()));
+                h.setEsgScore(Double.isNaN(row.getEsgScore()) ? null : row.getEsgScore());
+
+                // Ticker and weight are required; the rest can come from reference data
+                if (h.getSectorId() == null || h.getRegionId() == null || h.getEsgScore() == null) {
+                    if (!tickerReferenceService.enrich(h)) {
+                        reject(row.getRowNumber(), RejectReason.NO_REFERENCE_DATA, h.getTicker());
+                        return;
+                    }
+                }
+
+                holdings.add(h);
+            }
+
+            @Override
+            public void reject(long rowNumber, RejectReason reason, String detail) {
+                rejections.add(rowNumber, reason, detail);
+                // Log a sample only: the first few, then every Nth
+                long n = rejections.rejected();
+                if (n <= logFirstRejections || n % logEveryRejection == 0) {
+                    log.warn("rejected row={} reason={} detail=\"{}\" count={}", rowNumber, reason, detail, n);
+                }
+            }
+        };
+
+        try (InputStream inputStream = source.getInputStream()) {
+            reader.read(inputStream, sink);
+        }
+        return holdings;
+    }
+}
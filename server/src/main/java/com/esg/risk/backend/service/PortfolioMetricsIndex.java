@@ -0,0 +1,240 @@
+package com.esg.risk.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.esg.risk.backend.dto.PageResult;
+import com.esg.risk.backend.dto.PortfolioRanking;
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.model.Portfolio;
+
+/**
+ * Firm-wide, always-sorted index of per-portfolio metrics.
+ *
+ * Built once from an aggregate query at startup and then kept current by
+ * ingestion, so ranking and exposure filters are answered from memory
+ * without loading any holdings. Readers never lock; writers replace a
+ * portfolio's entries under a single lock.
+ *
+ * Uploads and deletes keep running while the startup scan does. Portfolios
+ * they touch in the meantime already have fresher entries than the scan, so
+ * the scan result is not applied to them.
+ */
+@Service
+public class PortfolioMetricsIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioMetricsIndex.class);
+
+    private static final String AGGREGATE_SQL =
+            "SELECT h.portfolio_id, p.name, h.sector_id, SUM(h.weight), SUM(h.weight * h.esg_score) "
+            + "FROM holding h JOIN portfolio p ON p.id = h.portfolio_id "
+            + "GROUP BY h.portfolio_id, p.name, h.sector_id";
+
+    private static final Comparator<Metrics> BY_ESG =
+            Comparator.comparingDouble(Metrics::esgScore).thenComparingLong(Metrics::portfolioId);
+
+    private static final Comparator<SectorEntry> BY_EXPOSURE =
+            Comparator.comparingDouble(SectorEntry::exposure).thenComparingLong(SectorEntry::portfolioId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ESGService esgService;
+    private final BreakdownService breakdownService;
+
+    private final Map<Long, Metrics> byId = new ConcurrentHashMap<>();
+    private final NavigableSet<Metrics> byEsg = new ConcurrentSkipListSet<>(BY_ESG);
+    private final Map<Integer, NavigableSet<SectorEntry>> bySector = new ConcurrentHashMap<>();
+
+    // Portfolios updated or removed while a rebuild scans; null when none runs. Guarded by this.
+    private Set<Long> changedDuringRebuild;
+
+    public PortfolioMetricsIndex(JdbcTemplate jdbcTemplate, ESGService esgService, BreakdownService breakdownService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.esgService = esgService;
+        this.breakdownService = breakdownService;
+    }
+
+    /**
+     * Load metrics for every portfolio with one GROUP BY over the holdings table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changedDuringRebuild = new HashSet<>();
+        }
+        try {
+            scan();
+        } finally {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+        }
+        log.info("indexed metrics for {} portfolios in {} ms", byId.size(), System.currentTimeMillis() - start);
+    }
+
+    private void scan() {
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, Map<Integer, Double>> sectorWeights = new HashMap<>();
+        Map<Long, double[]> esgTotals = new HashMap<>(); // {sum(weight), sum(weight * esg)}
+
+        jdbcTemplate.query(AGGREGATE_SQL, (RowCallbackHandler) rs -> {
+            long portfolioId = rs.getLong(1);
+            int sectorId = rs.getInt(3);
+            Integer sector = rs.wasNull() ? null : sectorId;
+            double weight = rs.getDouble(4);
+            double weightedEsg = rs.getDouble(5);
+
+            names.put(portfolioId, rs.getString(2));
+            sectorWeights.computeIfAbsent(portfolioId, k -> new HashMap<>()).merge(sector, weight, Double::sum);
+            double[] totals = esgTotals.computeIfAbsent(portfolioId, k -> new double[2]);
+            totals[0] += weight;
+            totals[1] += weightedEsg;
+        });
+
+        synchronized (this) {
+            for (Map.Entry<Long, double[]> entry : esgTotals.entrySet()) {
+                Long portfolioId = entry.getKey();
+                if (changedDuringRebuild.contains(portfolioId)) {
+                    continue;
+                }
+                double[] totals = entry.getValue();
+                double esg = totals[0] == 0 ? 0.0 : totals[1] / totals[0];
+                put(new Metrics(portfolioId, names.get(portfolioId), esg,
+                        toExposure(sectorWeights.get(portfolioId), totals[0])));
+            }
+        }
+    }
+
+    /**
+     * Recompute one portfolio's entry after its holdings changed.
+     */
+    public void update(Portfolio portfolio, List<Holding> holdings) {
+        double totalWeight = holdings.stream().mapToDouble(Holding::getWeight).sum();
+        double esg = totalWeight == 0 ? 0.0 : esgService.calculateEsg(holdings);
+        Metrics metrics = new Metrics(portfolio.getId(), portfolio.getName(), esg,
+                toExposure(breakdownService.sectorWeights(holdings), totalWeight));
+        synchronized (this) {
+            markChanged(metrics.portfolioId());
+            put(metrics);
+        }
+    }
+
+    public synchronized void remove(Long portfolioId) {
+        markChanged(portfolioId);
+        Metrics previous = byId.remove(portfolioId);
+        if (previous != null) {
+            unlink(previous);
+        }
+    }
+
+    /**
+     * Portfolios ordered by ESG score, highest first unless {@code ascending}.
+     */
+    public PageResult<PortfolioRanking> rankByEsg(boolean ascending, int page, int size) {
+        NavigableSet<Metrics> ordered = ascending ? byEsg : byEsg.descendingSet();
+        List<PortfolioRanking> content = new ArrayList<>(size);
+        Iterator<Metrics> it = ordered.iterator();
+        skip(it, (long) page * size);
+        while (it.hasNext() && content.size() < size) {
+            Metrics m = it.next();
+            content.add(new PortfolioRanking(m.portfolioId(), m.name(), m.esgScore(), null));
+        }
+        return new PageResult<>(content, page, size, byId.size());
+    }
+
+    /**
+     * Portfolios whose weight in a sector is strictly above {@code minExposure} percent,
+     * largest exposure first.
+     */
+    public PageResult<PortfolioRanking> withSectorExposureAbove(Integer sectorId, double minExposure, int page, int size) {
+        NavigableSet<SectorEntry> entries = sectorId == null ? null : bySector.get(sectorId);
+        if (entries == null) {
+            return new PageResult<>(List.of(), page, size, 0);
+        }
+        NavigableSet<SectorEntry> matching =
+                entries.tailSet(new SectorEntry(minExposure, Long.MAX_VALUE), false).descendingSet();
+
+        List<PortfolioRanking> content = new ArrayList<>(size);
+        long total = 0;
+        for (SectorEntry entry : matching) {
+            if (total++ < (long) page * size || content.size() >= size) {
+                continue;
+            }
+            Metrics m = byId.get(entry.portfolioId());
+            if (m != null) {
+                content.add(new PortfolioRanking(m.portfolioId(), m.name(), m.esgScore(), entry.exposure()));
+            }
+        }
+        return new PageResult<>(content, page, size, total);
+    }
+
+    private void markChanged(Long portfolioId) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(portfolioId);
+        }
+    }
+
+    private synchronized void put(Metrics metrics) {
+        Metrics previous = byId.put(metrics.portfolioId(), metrics);
+        if (previous != null) {
+            unlink(previous);
+        }
+        byEsg.add(metrics);
+        metrics.sectorExposure().forEach((sectorId, exposure) -> bySector
+                .computeIfAbsent(sectorId, k -> new ConcurrentSkipListSet<>(BY_EXPOSURE))
+                .add(new SectorEntry(exposure, metrics.portfolioId())));
+    }
+
+    private void unlink(Metrics metrics) {
+        byEsg.remove(metrics);
+        metrics.sectorExposure().forEach((sectorId, exposure) -> {
+            NavigableSet<SectorEntry> entries = bySector.get(sectorId);
+            if (entries != null) {
+                entries.remove(new SectorEntry(exposure, metrics.portfolioId()));
+            }
+        });
+    }
+
+    private static Map<Integer, Double> toExposure(Map<Integer, Double> sectorWeights, double totalWeight) {
+        Map<Integer, Double> exposure = new HashMap<>();
+        if (sectorWeights == null || totalWeight == 0) {
+            return exposure;
+        }
+        sectorWeights.forEach((sectorId, weight) -> {
+            // Holdings without a sector cannot be filtered on
+            if (sectorId != null) {
+                exposure.put(sectorId, weight / totalWeight * 100);
+            }
+        });
+        return exposure;
+    }
+
+    private static void skip(Iterator<?> it, long count) {
+        for (long i = 0; i < count && it.hasNext(); i++) {
+            it.next();
+        }
+    }
+
+    private record Metrics(Long portfolioId, String name, double esgScore, Map<Integer, Double> sectorExposure) {
+    }
+
+    private record SectorEntry(double exposure, long portfolioId) {
+    }
+}
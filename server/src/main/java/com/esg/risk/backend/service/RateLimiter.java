@@ -0,0 +1,51 @@
+package com.esg.risk.backend.service;
+
+/**
+ * Token bucket: permits refill continuously at {@code permitsPerSecond} up to
+ * {@code burst}. Used to pace background work (batch uploads, purges) so it
+ * never crowds out user requests against the same backends.
+ */
+public class RateLimiter {
+
+    private final double permitsPerSecond;
+    private final double burst;
+    private double available;
+    private long lastRefill;
+
+    public RateLimiter(double permitsPerSecond, double burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond must be > 0 and burst >= 1");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.available = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    /**
+     * Block until {@code permits} are available and take them. Requests larger
+     * than the burst size are allowed and simply wait longer.
+     */
+    public void acquire(int permits) throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            available -= permits;
+            // Going negative reserves future permits, so callers queue up fairly
+            waitNanos = available >= 0 ? 0 : (long) (-available / permitsPerSecond * 1_000_000_000L);
+        }
+        if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        available = Math.min(burst, available + (now - lastRefill) / 1_000_000_000.0 * permitsPerSecond);
+        lastRefill = now;
+    }
+}
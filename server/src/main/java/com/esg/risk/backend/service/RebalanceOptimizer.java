@@ -0,0 +1,472 @@
+package com.esg.risk.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.esg.risk.backend.dto.RebalanceRequest;
+import com.esg.risk.backend.dto.RebalanceResult;
+import com.esg.risk.backend.dto.WeightChange;
+import com.esg.risk.backend.model.Holding;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Searches for the smallest reweighting of a portfolio that reaches an ESG
+ * target within turnover, sector cap and stress scenario loss limits.
+ *
+ * Every constraint is linear in the weights, so moving weight from one
+ * holding to another changes the ESG sum, two sector sums and each scenario
+ * sum by a known amount. A candidate move is scored in O(scenarios) without
+ * revaluing the portfolio. Each worker runs randomized greedy searches with
+ * shrinking step sizes and restarts until the time budget is spent or a
+ * number of restarts in a row found nothing better; the best result over all
+ * workers wins.
+ *
+ * Workers are shared by all requests. At most {@code max-concurrent-requests}
+ * run at once and the rest are turned away, so a request waits at most for
+ * the searches of those ahead of it, and never longer than twice its budget
+ * in total.
+ */
+@Service
+public class RebalanceOptimizer {
+
+    private static final double PENALTY = 1e6;      // any violation outweighs all turnover
+    private static final double TOLERANCE = 1e-9;
+    private static final int CANDIDATES_PER_STEP = 64;
+    private static final int PATIENCE = 8;          // steps without improvement before halving the step
+    private static final int RESTART_PATIENCE = 16; // restarts without improvement before a worker stops
+
+    private final StressTestService stressTestService;
+    private final DimensionService dimensionService;
+    private final int parallelism;
+    private final long defaultTimeBudget;
+    private final long maxTimeBudget;
+    private final ExecutorService workers;
+    private final Semaphore requests;
+
+    public RebalanceOptimizer(
+            StressTestService stressTestService,
+            DimensionService dimensionService,
+            @Value("${rebalance.parallelism:0}") int parallelism,
+            @Value("${rebalance.default-time-budget-ms:2000}") long defaultTimeBudget,
+            @Value("${rebalance.max-time-budget-ms:10000}") long maxTimeBudget,
+            @Value("${rebalance.max-concurrent-requests:2}") int maxConcurrentRequests) {
+        this.stressTestService = stressTestService;
+        this.dimensionService = dimensionService;
+        // 0 means one worker per core
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.defaultTimeBudget = defaultTimeBudget;
+        this.maxTimeBudget = maxTimeBudget;
+        this.requests = new Semaphore(Math.max(1, maxConcurrentRequests));
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread t = new Thread(r, "rebalance-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * @throws RejectedExecutionException if the maximum number of requests is already running
+     */
+    public RebalanceResult optimize(List<Holding> holdings, RebalanceRequest request) throws InterruptedException {
+        if (!requests.tryAcquire()) {
+            throw new RejectedExecutionException("Too many rebalance requests in progress");
+        }
+        try {
+            return run(holdings, request);
+        } finally {
+            requests.release();
+        }
+    }
+
+    private RebalanceResult run(List<Holding> holdings, RebalanceRequest request) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        Problem problem = problem(holdings, request);
+
+        long budget = request.getTimeBudgetMillis() == null ? defaultTimeBudget : request.getTimeBudgetMillis();
+        long searchMillis = Math.max(1, Math.min(budget, maxTimeBudget));
+
+        long latestEnd = start + 2 * searchMillis;
+
+        List<Callable<Search>> tasks = new ArrayList<>(parallelism);
+        long seed = System.nanoTime();
+        for (int t = 0; t < parallelism; t++) {
+            long workerSeed = seed + t * 0x9E3779B97F4A7C15L;
+            // A task's budget starts when a worker picks it up, not while it waits behind
+            // another request, but queue wait plus search stays within twice the budget
+            tasks.add(() -> search(problem, new SplittableRandom(workerSeed),
+                    Math.min(System.currentTimeMillis() + searchMillis, latestEnd)));
+        }
+
+        Search best = null;
+        long evaluated = 0;
+        for (Future<Search> future : workers.invokeAll(tasks)) {
+            Search search;
+            try {
+                search = future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Rebalance search failed", e.getCause());
+            }
+            evaluated += search.evaluated;
+            if (best == null || search.bestScore < best.bestScore) {
+                best = search;
+            }
+        }
+        return result(problem, holdings, best.bestWeights, evaluated, System.currentTimeMillis() - start);
+    }
+
+    private Problem problem(List<Holding> holdings, RebalanceRequest request) {
+        int n = holdings.size();
+        if (n == 0) {
+            throw new IllegalArgumentException("Portfolio has no holdings");
+        }
+
+        Problem p = new Problem();
+        p.n = n;
+        p.w0 = new double[n];
+        p.esg = new double[n];
+        p.sector = new int[n];
+
+        Map<Integer, Integer> sectorIndex = new HashMap<>();
+        List<Integer> sectorIds = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Holding h = holdings.get(i);
+            p.w0[i] = h.getWeight() == null ? 0.0 : h.getWeight();
+            p.esg[i] = h.getEsgScore() == null ? 0.0 : h.getEsgScore();
+            p.sector[i] = sectorIndex.computeIfAbsent(h.getSectorId(), id -> {
+                sectorIds.add(id);
+                return sectorIds.size() - 1;
+            });
+            p.total += p.w0[i];
+        }
+        if (p.total <= 0) {
+            throw new IllegalArgumentException("Portfolio has no weight to rebalance");
+        }
+        p.sectorIds = sectorIds;
+        p.sectors = sectorIds.size();
+
+        p.targetEsgSum = request.getTargetEsg() == null ? Double.NEGATIVE_INFINITY : request.getTargetEsg() * p.total;
+        // Turnover is half the sum of absolute weight changes
+        p.maxAbsChange = request.getMaxTurnover() == null
+                ? Double.POSITIVE_INFINITY
+                : percent(request.getMaxTurnover(), "maxTurnover") / 100 * p.total * 2;
+
+        p.sectorCap = new double[p.sectors];
+        Arrays.fill(p.sectorCap, Double.POSITIVE_INFINITY);
+        if (request.getSectorCaps() != null) {
+            request.getSectorCaps().forEach((name, cap) -> {
+                Integer sectorId = dimensionService.findSectorId(name);
+                Integer index = sectorId == null ? null : sectorIndex.get(sectorId);
+                // A cap on a sector the portfolio does not hold is always met
+                if (index != null) {
+                    p.sectorCap[index] = percent(cap, "sector cap for " + name) / 100 * p.total;
+                }
+            });
+        }
+
+        p.scenarioNames = stressTestService.scenarioNames();
+        int scenarios = p.scenarioNames.size();
+        p.multiplier = new double[scenarios * p.sectors];
+        for (int k = 0; k < scenarios; k++) {
+            for (int s = 0; s < p.sectors; s++) {
+                p.multiplier[k * p.sectors + s] =
+                        stressTestService.sectorMultiplier(p.scenarioNames.get(k), sectorIds.get(s));
+            }
+        }
+
+        List<Integer> constrained = new ArrayList<>();
+        List<Double> floors = new ArrayList<>();
+        if (request.getMaxScenarioLoss() != null) {
+            request.getMaxScenarioLoss().forEach((name, maxLoss) -> {
+                int k = p.scenarioNames.indexOf(name.toLowerCase(Locale.ROOT));
+                if (k < 0) {
+                    throw new IllegalArgumentException("Unknown scenario: " + name);
+                }
+                constrained.add(k);
+                // loss = (total - stressed) / total must stay below maxLoss
+                floors.add(p.total * (1 - percent(maxLoss, "max loss for " + name) / 100));
+            });
+        }
+        p.constrainedScenarios = constrained.stream().mapToInt(Integer::intValue).toArray();
+        p.scenarioFloor = floors.stream().mapToDouble(Double::doubleValue).toArray();
+        return p;
+    }
+
+    private static double percent(Double value, String what) {
+        if (value == null || value < 0 || value > 100) {
+            throw new IllegalArgumentException(what + " must be between 0 and 100");
+        }
+        return value;
+    }
+
+    private static Search search(Problem p, SplittableRandom random, long deadline) {
+        State state = new State(p);
+        Search search = new Search();
+        search.bestWeights = p.w0.clone();
+        search.bestScore = state.score;
+        double minStep = p.total * 1e-6;
+        int staleRestarts = 0;
+
+        while (System.currentTimeMillis() < deadline && p.n > 1 && staleRestarts < RESTART_PATIENCE) {
+            state.load(p.w0);
+            double step = p.total * 0.05;
+            int failures = 0;
+
+            while (step >= minStep && System.currentTimeMillis() < deadline) {
+                int bestI = -1;
+                int bestJ = -1;
+                double bestDelta = 0;
+                double bestScore = state.score - TOLERANCE;
+
+                for (int c = 0; c < CANDIDATES_PER_STEP; c++) {
+                    int i = random.nextInt(p.n);
+                    int j = random.nextInt(p.n);
+                    if (i == j || state.w[i] <= 0) {
+                        continue;
+                    }
+                    double delta = Math.min(state.w[i], step * (0.25 + 0.75 * random.nextDouble()));
+                    double score = state.evaluate(i, j, delta);
+                    search.evaluated++;
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestI = i;
+                        bestJ = j;
+                        bestDelta = delta;
+                    }
+                }
+
+                if (bestI >= 0) {
+                    state.apply(bestI, bestJ, bestDelta);
+                    failures = 0;
+                } else if (++failures >= PATIENCE) {
+                    step /= 2;
+                    failures = 0;
+                }
+            }
+
+            // Re-derive from the weights so accumulated rounding cannot flatter the result
+            state.load(state.w);
+            if (state.score < search.bestScore - TOLERANCE) {
+                search.bestScore = state.score;
+                search.bestWeights = state.w.clone();
+                staleRestarts = 0;
+            } else {
+                // Converged: further restarts keep landing on the same optimum
+                staleRestarts++;
+            }
+        }
+        return search;
+    }
+
+    private RebalanceResult result(Problem p, List<Holding> holdings, double[] weights, long evaluated,
+            long elapsed) {
+        State before = new State(p);
+        State after = new State(p);
+        after.load(weights);
+
+        Map<String, Double> scenarioLoss = new LinkedHashMap<>();
+        for (int k = 0; k < p.scenarioNames.size(); k++) {
+            double stressed = 0;
+            for (int i = 0; i < p.n; i++) {
+                stressed += weights[i] * p.multiplier[k * p.sectors + p.sector[i]];
+            }
+            scenarioLoss.put(p.scenarioNames.get(k), (p.total - stressed) / p.total * 100);
+        }
+
+        Map<Integer, Double> exposure = new HashMap<>();
+        for (int s = 0; s < p.sectors; s++) {
+            exposure.put(p.sectorIds.get(s), after.sectorSum[s] / p.total * 100);
+        }
+
+        List<WeightChange> changes = new ArrayList<>();
+        for (int i = 0; i < p.n; i++) {
+            if (Math.abs(weights[i] - p.w0[i]) > p.total * 1e-9) {
+                Holding h = holdings.get(i);
+                changes.add(new WeightChange(h.getId(), h.getTicker(), p.w0[i], weights[i]));
+            }
+        }
+        changes.sort(Comparator.comparingDouble((WeightChange c) -> -Math.abs(c.getToWeight() - c.getFromWeight())));
+
+        return new RebalanceResult(
+                after.violation() <= TOLERANCE,
+                before.esgSum / p.total,
+                after.esgSum / p.total,
+                after.absChange / 2 / p.total * 100,
+                scenarioLoss,
+                dimensionService.withSectorNames(exposure),
+                changes,
+                evaluated,
+                parallelism,
+                elapsed);
+    }
+
+    /**
+     * Immutable inputs shared by all workers.
+     */
+    private static final class Problem {
+        int n;
+        double total;
+        double[] w0;
+        double[] esg;
+        int[] sector;            // dense sector index per holding
+        int sectors;
+        List<Integer> sectorIds; // sector id per dense index
+        double[] sectorCap;      // max weight per sector
+        double targetEsgSum;
+        double maxAbsChange;
+        List<String> scenarioNames;
+        double[] multiplier;     // [scenario * sectors + sector]
+        int[] constrainedScenarios;
+        double[] scenarioFloor;  // min stressed value per constrained scenario
+    }
+
+    /**
+     * A worker's current weights and the running sums every constraint is built from.
+     */
+    private static final class State {
+        final Problem p;
+        final double[] w;
+        final double[] sectorSum;
+        final double[] scenarioSum; // per constrained scenario
+        double esgSum;
+        double absChange;
+        double sectorExcess;
+        double score;
+
+        State(Problem p) {
+            this.p = p;
+            this.w = new double[p.n];
+            this.sectorSum = new double[p.sectors];
+            this.scenarioSum = new double[p.constrainedScenarios.length];
+            load(p.w0);
+        }
+
+        void load(double[] weights) {
+            System.arraycopy(weights, 0, w, 0, p.n);
+            Arrays.fill(sectorSum, 0);
+            Arrays.fill(scenarioSum, 0);
+            esgSum = 0;
+            absChange = 0;
+            for (int i = 0; i < p.n; i++) {
+                esgSum += w[i] * p.esg[i];
+                absChange += Math.abs(w[i] - p.w0[i]);
+                sectorSum[p.sector[i]] += w[i];
+                for (int c = 0; c < scenarioSum.length; c++) {
+                    scenarioSum[c] += w[i] * p.multiplier[p.constrainedScenarios[c] * p.sectors + p.sector[i]];
+                }
+            }
+            sectorExcess = 0;
+            for (int s = 0; s < p.sectors; s++) {
+                sectorExcess += excess(sectorSum[s], p.sectorCap[s]);
+            }
+            score = score(esgSum, absChange, sectorExcess, scenarioViolation());
+        }
+
+        /**
+         * Score after moving {@code delta} weight from holding i to holding j, without applying it.
+         */
+        double evaluate(int i, int j, double delta) {
+            int si = p.sector[i];
+            int sj = p.sector[j];
+            double esg = esgSum + delta * (p.esg[j] - p.esg[i]);
+            double abs = absChange
+                    - Math.abs(w[i] - p.w0[i]) + Math.abs(w[i] - delta - p.w0[i])
+                    - Math.abs(w[j] - p.w0[j]) + Math.abs(w[j] + delta - p.w0[j]);
+            if (si == sj) {
+                return score(esg, abs, sectorExcess, scenarioViolation());
+            }
+            double sectors = sectorExcess
+                    + excess(sectorSum[si] - delta, p.sectorCap[si]) - excess(sectorSum[si], p.sectorCap[si])
+                    + excess(sectorSum[sj] + delta, p.sectorCap[sj]) - excess(sectorSum[sj], p.sectorCap[sj]);
+            double scenarios = 0;
+            for (int c = 0; c < scenarioSum.length; c++) {
+                int base = p.constrainedScenarios[c] * p.sectors;
+                double stressed = scenarioSum[c] + delta * (p.multiplier[base + sj] - p.multiplier[base + si]);
+                scenarios += excess(p.scenarioFloor[c], stressed);
+            }
+            return score(esg, abs, sectors, scenarios);
+        }
+
+        void apply(int i, int j, double delta) {
+            int si = p.sector[i];
+            int sj = p.sector[j];
+            esgSum += delta * (p.esg[j] - p.esg[i]);
+            absChange += Math.abs(w[i] - delta - p.w0[i]) - Math.abs(w[i] - p.w0[i])
+                    + Math.abs(w[j] + delta - p.w0[j]) - Math.abs(w[j] - p.w0[j]);
+            if (si != sj) {
+                sectorExcess += excess(sectorSum[si] - delta, p.sectorCap[si]) - excess(sectorSum[si], p.sectorCap[si])
+                        + excess(sectorSum[sj] + delta, p.sectorCap[sj]) - excess(sectorSum[sj], p.sectorCap[sj]);
+                sectorSum[si] -= delta;
+                sectorSum[sj] += delta;
+                for (int c = 0; c < scenarioSum.length; c++) {
+                    int base = p.constrainedScenarios[c] * p.sectors;
+                    scenarioSum[c] += delta * (p.multiplier[base + sj] - p.multiplier[base + si]);
+                }
+            }
+            w[i] -= delta;
+            w[j] += delta;
+            score = score(esgSum, absChange, sectorExcess, scenarioViolation());
+        }
+
+        double violation() {
+            return violation(esgSum, absChange, sectorExcess, scenarioViolation());
+        }
+
+        private double scenarioViolation() {
+            double violation = 0;
+            for (int c = 0; c < scenarioSum.length; c++) {
+                violation += excess(p.scenarioFloor[c], scenarioSum[c]);
+            }
+            return violation;
+        }
+
+        // ESG shortfall in score points, everything else in % of total weight
+        private double violation(double esg, double abs, double sectors, double scenarios) {
+            return Math.max(0, p.targetEsgSum - esg) / p.total
+                    + (sectors + scenarios + excess(abs, p.maxAbsChange) / 2) / p.total * 100;
+        }
+
+        private double score(double esg, double abs, double sectors, double scenarios) {
+            return PENALTY * violation(esg, abs, sectors, scenarios) + turnover(abs);
+        }
+
+        private double turnover(double abs) {
+            return abs / 2 / p.total * 100;
+        }
+
+        private static double excess(double value, double limit) {
+            return value > limit ? value - limit : 0.0;
+        }
+    }
+
+    private static final class Search {
+        double[] bestWeights;
+        double bestScore;
+        long evaluated;
+    }
+}
@@ -0,0 +1,138 @@
+package com.esg.risk.backend.service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.esg.risk.backend.dto.Rejection;
+import com.esg.risk.backend.service.reader.RejectReason;
+
+/**
+ * Collects row-level rejects for one upload into a compact gzip'd blob.
+ *
+ * Counts per reason are always exact; the per-row detail is capped so a
+ * completely broken file cannot blow up the report.
+ */
+public class RejectionCollector {
+
+    private static final int MAX_DETAIL_LENGTH = 200;
+
+    private final int maxDetailed;
+    private final Map<RejectReason, Long> counts = new EnumMap<>(RejectReason.class);
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private Writer writer;
+    private long rejected;
+
+    public RejectionCollector(int maxDetailed) {
+        this.maxDetailed = maxDetailed;
+    }
+
+    public void add(long rowNumber, RejectReason reason, String detail) {
+        counts.merge(reason, 1L, Long::sum);
+        if (rejected++ >= maxDetailed) {
+            return;
+        }
+        try {
+            if (writer == null) {
+                writer = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8);
+            }
+            writer.write(Long.toString(rowNumber));
+            writer.write('\t');
+            writer.write(reason.name());
+            writer.write('\t');
+            writer.write(sanitize(detail));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long rejected() {
+        return rejected;
+    }
+
+    public boolean truncated() {
+        return rejected > maxDetailed;
+    }
+
+    /**
+     * Counts encoded as "REASON=n;REASON=n".
+     */
+    public String reasonCounts() {
+        StringBuilder sb = new StringBuilder();
+        counts.forEach((reason, count) -> {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(reason.name()).append('=').append(count);
+        });
+        return sb.toString();
+    }
+
+    /**
+     * Close the stream and return the compressed detail, or null if nothing was rejected.
+     */
+    public byte[] finish() {
+        if (writer == null) {
+            return null;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static Map<String, Long> decodeCounts(String encoded) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return counts;
+        }
+        for (String pair : encoded.split(";")) {
+            int eq = pair.indexOf('=');
+            counts.put(pair.substring(0, eq), Long.parseLong(pair.substring(eq + 1)));
+        }
+        return counts;
+    }
+
+    public static List<Rejection> decode(byte[] data, int limit) {
+        List<Rejection> rejections = new ArrayList<>();
+        if (data == null) {
+            return rejections;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(data)), StandardCharsets.UTF_8))) {
+            String line;
+            while (rejections.size() < limit && (line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 3);
+                rejections.add(new Rejection(Long.parseLong(parts[0]), parts[1],
+                        parts.length > 2 && !parts[2].isEmpty() ? parts[2] : null));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rejections;
+    }
+
+    private static String sanitize(String detail) {
+        if (detail == null) {
+            return "";
+        }
+        String clean = detail.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        return clean.length() > MAX_DETAIL_LENGTH ? clean.substring(0, MAX_DETAIL_LENGTH) : clean;
+    }
+}
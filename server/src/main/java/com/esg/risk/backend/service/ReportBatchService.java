@@ -0,0 +1,364 @@
+package com.esg.risk.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.esg.risk.backend.dto.ReportBatchRequest;
+import com.esg.risk.backend.dto.ReportBatchStatus;
+import com.esg.risk.backend.model.Report;
+import com.esg.risk.backend.model.ReportBatchItem;
+import com.esg.risk.backend.model.ReportBatchRun;
+import com.esg.risk.backend.repository.PortfolioRepository;
+import com.esg.risk.backend.repository.ReportBatchItemRepository;
+import com.esg.risk.backend.repository.ReportBatchRunRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates XLSX reports for many portfolios in one resumable run.
+ *
+ * A run enqueues one PENDING item per selected portfolio in a single
+ * INSERT ... SELECT. Workers then take items in id order and mark each DONE,
+ * FAILED or SKIPPED as soon as it finishes, so the items table is the
+ * checkpoint. A report that was being generated during a crash is simply
+ * generated again. A run that finishes with items it could not record is
+ * marked FAILED rather than COMPLETED.
+ *
+ * Runs are shared between replicas through the DB. At most one run can be
+ * RUNNING (a unique key on the table), so the month-end schedule firing on
+ * every replica starts one run. The instance executing a run owns it and
+ * refreshes its heartbeat; a RUNNING run whose heartbeat is stale was left
+ * by an instance that died, and the first instance to claim it with a
+ * conditional UPDATE continues it with its pending items.
+ *
+ * Parallelism is capped below the DB connection pool like bulk ingestion,
+ * and uploads are paced by a shared {@link RateLimiter}.
+ */
+@Service
+public class ReportBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportBatchService.class);
+
+    // error and selection are VARCHAR(255)
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final String CLAIM_SQL = "UPDATE report_batch_run SET owner = ?, heartbeat = NOW(6) "
+            + "WHERE id = ? AND status = 'RUNNING' AND (heartbeat IS NULL OR heartbeat < NOW(6) - INTERVAL ? SECOND)";
+
+    private final ReportService reportService;
+    private final PortfolioRepository portfolioRepo;
+    private final ReportBatchRunRepository runRepo;
+    private final ReportBatchItemRepository itemRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RateLimiter uploadLimiter;
+    private final int parallelism;
+    private final Semaphore slots;
+    private final ExecutorService workers;
+    private final ExecutorService coordinator;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final long staleSeconds;
+    // Runs this instance has queued or is executing
+    private final Set<Long> executing = ConcurrentHashMap.newKeySet();
+
+    public ReportBatchService(
+            ReportService reportService,
+            PortfolioRepository portfolioRepo,
+            ReportBatchRunRepository runRepo,
+            ReportBatchItemRepository itemRepo,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${report.batch.parallelism:4}") int parallelism,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+            @Value("${report.batch.uploads-per-second:5}") double uploadsPerSecond,
+            @Value("${report.batch.heartbeat-seconds:30}") long heartbeatSeconds) {
+        this.reportService = reportService;
+        this.portfolioRepo = portfolioRepo;
+        this.runRepo = runRepo;
+        this.itemRepo = itemRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.uploadLimiter = new RateLimiter(uploadsPerSecond, Math.max(1, uploadsPerSecond));
+        // Leave connections free for user traffic
+        this.parallelism = Math.max(1, Math.min(parallelism, connectionPoolSize - 2));
+        this.slots = new Semaphore(this.parallelism);
+        // Several missed heartbeats before another instance takes a run over
+        this.staleSeconds = 3 * Math.max(1, heartbeatSeconds);
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread t = new Thread(r, "report-batch-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.coordinator = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "report-batch-coordinator");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Month-end run over all portfolios (cron "-" disables it). Every replica
+     * fires; the first one starts the run and the others find it running, or
+     * already created if their clocks are behind.
+     */
+    @Scheduled(cron = "${report.batch.cron:0 0 22 L * *}")
+    public void scheduledRun() {
+        if (runRepo.existsByTriggeredByAndCreatedAtAfter("SCHEDULE", LocalDateTime.now().minusHours(1))) {
+            log.info("scheduled report batch already started by another instance");
+            return;
+        }
+        try {
+            start(new ReportBatchRequest(), "SCHEDULE");
+        } catch (IllegalStateException e) {
+            log.warn("scheduled report batch not started: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Keep this instance's runs alive and pick up runs whose owner has died.
+     */
+    @Scheduled(fixedDelayString = "${report.batch.heartbeat-seconds:30}", timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        jdbcTemplate.update("UPDATE report_batch_run SET heartbeat = NOW(6) WHERE owner = ? AND status = 'RUNNING'",
+                instanceId);
+        resumeInterrupted();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        for (ReportBatchRun run : runRepo.findByStatus(ReportBatchRun.RUNNING)) {
+            if (executing.contains(run.getId())
+                    || jdbcTemplate.update(CLAIM_SQL, instanceId, run.getId(), staleSeconds) == 0) {
+                continue; // ours already, or alive elsewhere
+            }
+            log.info("resuming report batch runId={} previousOwner={} pending={}", run.getId(), run.getOwner(),
+                    itemRepo.countByRunIdAndStatus(run.getId(), ReportBatchItem.PENDING));
+            submit(run.getId());
+        }
+    }
+
+    /**
+     * Enqueue a run and start it in the background.
+     */
+    public synchronized ReportBatchStatus start(ReportBatchRequest request, String triggeredBy) {
+        if (!runRepo.findByStatus(ReportBatchRun.RUNNING).isEmpty()) {
+            throw new IllegalStateException("A report batch is already running");
+        }
+
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        List<String> selection = new ArrayList<>();
+        if (request.getPortfolioIds() != null && !request.getPortfolioIds().isEmpty()) {
+            where.append(" AND id IN (")
+                    .append(String.join(", ", Collections.nCopies(request.getPortfolioIds().size(), "?")))
+                    .append(")");
+            args.addAll(request.getPortfolioIds());
+            selection.add(request.getPortfolioIds().size() + " ids");
+        }
+        if (request.getNameContains() != null && !request.getNameContains().isBlank()) {
+            // Match the text literally, wildcards included
+            String text = request.getNameContains().trim()
+                    .replace("!", "!!").replace("%", "!%").replace("_", "!_");
+            where.append(" AND name LIKE ? ESCAPE '!'");
+            args.add("%" + text + "%");
+            selection.add("name contains '" + request.getNameContains().trim() + "'");
+        }
+
+        ReportBatchRun run;
+        try {
+            run = transactionTemplate.execute(status -> enqueue(triggeredBy, selection, where, args));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance started one since the check above
+            throw new IllegalStateException("A report batch is already running", e);
+        }
+
+        log.info("report batch started runId={} total={} selection=\"{}\"", run.getId(), run.getTotal(), run.getSelection());
+        submit(run.getId());
+        return status(run.getId());
+    }
+
+    private ReportBatchRun enqueue(String triggeredBy, List<String> selection, StringBuilder where, List<Object> args) {
+        ReportBatchRun r = new ReportBatchRun();
+        r.setStatus(ReportBatchRun.RUNNING);
+        r.setTriggeredBy(triggeredBy);
+        r.setSelection(truncate(selection.isEmpty() ? "all" : String.join(", ", selection)));
+        r.setCreatedAt(LocalDateTime.now());
+        r.setOwner(instanceId);
+        runRepo.saveAndFlush(r);
+        jdbcTemplate.update("UPDATE report_batch_run SET heartbeat = NOW(6) WHERE id = ?", r.getId());
+
+        List<Object> insertArgs = new ArrayList<>();
+        insertArgs.add(r.getId());
+        insertArgs.add(ReportBatchItem.PENDING);
+        insertArgs.addAll(args);
+        int total = jdbcTemplate.update("INSERT INTO report_batch_item (run_id, portfolio_id, status) "
+                + "SELECT ?, id, ? FROM portfolio" + where + " ORDER BY id", insertArgs.toArray());
+        r.setTotal(total);
+        return runRepo.save(r);
+    }
+
+    public ReportBatchStatus status(Long runId) {
+        ReportBatchRun run = runRepo.findById(runId)
+                .orElseThrow(() -> new RuntimeException("Report batch not found"));
+
+        Map<String, long[]> counts = new HashMap<>(); // status -> {count, maxMillis}
+        double[] doneMillis = new double[1];
+        jdbcTemplate.query("SELECT status, COUNT(*), AVG(millis), MAX(millis) FROM report_batch_item "
+                + "WHERE run_id = ? GROUP BY status", (RowCallbackHandler) rs -> {
+            counts.put(rs.getString(1), new long[] {rs.getLong(2), rs.getLong(4)});
+            if (ReportBatchItem.DONE.equals(rs.getString(1))) {
+                doneMillis[0] = rs.getDouble(3);
+            }
+        }, runId);
+
+        long[] none = new long[2];
+        return new ReportBatchStatus(run.getId(), run.getStatus(), run.getTriggeredBy(), run.getSelection(),
+                run.getCreatedAt(), run.getFinishedAt(), run.getTotal(),
+                counts.getOrDefault(ReportBatchItem.PENDING, none)[0],
+                counts.getOrDefault(ReportBatchItem.DONE, none)[0],
+                counts.getOrDefault(ReportBatchItem.FAILED, none)[0],
+                counts.getOrDefault(ReportBatchItem.SKIPPED, none)[0],
+                doneMillis[0],
+                counts.getOrDefault(ReportBatchItem.DONE, none)[1]);
+    }
+
+    private void submit(Long runId) {
+        executing.add(runId);
+        coordinator.submit(() -> {
+            try {
+                execute(runId);
+            } finally {
+                executing.remove(runId);
+            }
+        });
+    }
+
+    private void execute(Long runId) {
+        long start = System.currentTimeMillis();
+        long afterId = 0;
+        try {
+            List<ReportBatchItem> page;
+            while (!(page = itemRepo.findTop500ByRunIdAndStatusAndIdGreaterThanOrderById(
+                    runId, ReportBatchItem.PENDING, afterId)).isEmpty()) {
+                if (!owns(runId)) {
+                    // Missed heartbeats and another instance took over; it has the pending items
+                    log.warn("report batch taken over runId={}", runId);
+                    return;
+                }
+                for (ReportBatchItem item : page) {
+                    slots.acquire();
+                    workers.submit(() -> {
+                        try {
+                            process(item);
+                        } catch (RuntimeException e) {
+                            // Nothing reads the Future; the item stays PENDING and fails the run below
+                            log.error("report batch item not recorded runId={} itemId={} portfolioId={} error=\"{}\"",
+                                    item.getRunId(), item.getId(), item.getPortfolioId(), e.getMessage(), e);
+                        } finally {
+                            slots.release();
+                        }
+                    });
+                }
+                afterId = page.get(page.size() - 1).getId();
+            }
+            // Wait for the last items before closing the run
+            slots.acquire(parallelism);
+            slots.release(parallelism);
+        } catch (InterruptedException e) {
+            // Shutting down: the run stays RUNNING and resumes on the next start
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            // Nothing reads the coordinator's Future either; the run resumes on the next start
+            log.error("report batch stopped runId={} error=\"{}\"", runId, e.getMessage(), e);
+            return;
+        }
+
+        long pending = itemRepo.countByRunIdAndStatus(runId, ReportBatchItem.PENDING);
+        ReportBatchRun run = runRepo.findById(runId).orElseThrow();
+        if (!instanceId.equals(run.getOwner())) {
+            log.warn("report batch taken over runId={}", runId);
+            return;
+        }
+        run.setStatus(pending == 0 ? ReportBatchRun.COMPLETED : ReportBatchRun.FAILED);
+        run.setFinishedAt(LocalDateTime.now());
+        runRepo.save(run);
+
+        ReportBatchStatus status = status(runId);
+        if (pending > 0) {
+            log.warn("report batch finished with items still pending runId={} pending={}", runId, pending);
+        }
+        log.info("report batch finished runId={} status={} done={} failed={} skipped={} avgMs={} maxMs={} totalMs={}",
+                runId, run.getStatus(), status.getDone(), status.getFailed(), status.getSkipped(),
+                Math.round(status.getAvgMillis()), status.getMaxMillis(), System.currentTimeMillis() - start);
+    }
+
+    private void process(ReportBatchItem item) {
+        long start = System.currentTimeMillis();
+        try {
+            if (!portfolioRepo.existsById(item.getPortfolioId())) {
+                // Deleted since the run was enqueued
+                item.setStatus(ReportBatchItem.SKIPPED);
+            } else {
+                Report report = reportService.generateXlsxReport(item.getPortfolioId(), uploadLimiter);
+                item.setReportId(report.getId());
+                item.setStatus(ReportBatchItem.DONE);
+            }
+        } catch (InterruptedException e) {
+            // Leave the item PENDING for the resumed run
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            log.warn("report failed runId={} portfolioId={} error=\"{}\"", item.getRunId(), item.getPortfolioId(),
+                    e.getMessage());
+            item.setStatus(ReportBatchItem.FAILED);
+            item.setError(truncate(String.valueOf(e.getMessage())));
+        }
+        item.setMillis(System.currentTimeMillis() - start);
+        item.setFinishedAt(LocalDateTime.now());
+        itemRepo.save(item);
+    }
+
+    private boolean owns(Long runId) {
+        Long owned = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM report_batch_run WHERE id = ? AND owner = ?",
+                Long.class, runId, instanceId);
+        return owned != null && owned > 0;
+    }
+
+    private static String truncate(String s) {
+        return s.length() > MAX_TEXT_LENGTH ? s.substring(0, MAX_TEXT_LENGTH) : s;
+    }
+}
@@ -0,0 +1,158 @@
+package com.esg.risk.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.esg.risk.backend.model.Report;
+import com.esg.risk.backend.repository.ReportRepository;
+
+/**
+ * Deletes generated reports that fall outside the retention policy: beyond
+ * the newest {@code keep-last} of their portfolio, or older than
+ * {@code max-age-days}. Either rule can be turned off with 0.
+ *
+ * Each pass ranks the reports once and takes up to {@code max-per-pass}
+ * expired ids in id order, then works through them one batch at a time. Each
+ * batch removes its objects with a single bulk MinIO request, then deletes
+ * the rows whose objects are gone in one statement. Another pass follows
+ * only if this one was full and deleted something. A row whose object could not be
+ * removed is kept so the next purge retries it. Batches are paced by a
+ * {@link RateLimiter} so a large backlog drains slowly rather than competing
+ * with user requests.
+ */
+@Service
+public class ReportRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportRetentionService.class);
+
+    private final ReportRepository reportRepo;
+    private final MinioService minioService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int keepLast;
+    private final int maxAgeDays;
+    private final int batchSize;
+    private final int maxPerPass;
+    private final RateLimiter deleteLimiter;
+
+    public ReportRetentionService(
+            ReportRepository reportRepo,
+            MinioService minioService,
+            JdbcTemplate jdbcTemplate,
+            @Value("${report.retention.keep-last:0}") int keepLast,
+            @Value("${report.retention.max-age-days:0}") int maxAgeDays,
+            @Value("${report.retention.batch-size:500}") int batchSize,
+            @Value("${report.retention.max-per-pass:50000}") int maxPerPass,
+            @Value("${report.retention.deletes-per-second:200}") double deletesPerSecond) {
+        this.reportRepo = reportRepo;
+        this.minioService = minioService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.keepLast = Math.max(0, keepLast);
+        this.maxAgeDays = Math.max(0, maxAgeDays);
+        // MinIO accepts at most 1000 keys per bulk delete
+        this.batchSize = Math.max(1, Math.min(batchSize, 1000));
+        this.maxPerPass = Math.max(this.batchSize, maxPerPass);
+        this.deleteLimiter = new RateLimiter(deletesPerSecond, Math.max(this.batchSize, deletesPerSecond));
+    }
+
+    public boolean isEnabled() {
+        return keepLast > 0 || maxAgeDays > 0;
+    }
+
+    /**
+     * Remove all expired reports.
+     *
+     * @return the number of reports deleted
+     */
+    @Scheduled(cron = "${report.retention.cron:0 30 3 * * *}")
+    public synchronized long purge() {
+        if (!isEnabled()) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(maxAgeDays);
+        long deleted = 0;
+        long failed = 0;
+
+        try {
+            List<Report> expired;
+            long passDeleted;
+            do {
+                expired = findExpired(cutoff);
+                passDeleted = 0;
+                for (int from = 0; from < expired.size(); from += batchSize) {
+                    List<Report> batch = expired.subList(from, Math.min(from + batchSize, expired.size()));
+                    deleteLimiter.acquire(batch.size());
+
+                    List<String> paths = new ArrayList<>(batch.size());
+                    for (Report report : batch) {
+                        if (report.getS3Path() != null) {
+                            paths.add(report.getS3Path());
+                        }
+                    }
+                    Set<String> notRemoved = new HashSet<>(minioService.removeFiles(paths));
+
+                    List<Long> ids = new ArrayList<>(batch.size());
+                    for (Report report : batch) {
+                        if (!notRemoved.contains(report.getS3Path())) {
+                            ids.add(report.getId());
+                        }
+                    }
+                    reportRepo.deleteAllByIdInBatch(ids);
+                    passDeleted += ids.size();
+                    failed += batch.size() - ids.size();
+                }
+                deleted += passDeleted;
+                // Rows kept after an error come back in the next pass; stop once nothing moves
+            } while (expired.size() == maxPerPass && passDeleted > 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Whatever was deleted stays deleted; the rest waits for the next purge
+            log.warn("report purge stopped after {} deleted: {}", deleted, e.getMessage());
+        }
+
+        if (deleted > 0 || failed > 0) {
+            log.info("purged reports deleted={} kept-after-error={} keepLast={} maxAgeDays={} ms={}",
+                    deleted, failed, keepLast, maxAgeDays, System.currentTimeMillis() - start);
+        }
+        return deleted;
+    }
+
+    private List<Report> findExpired(LocalDateTime cutoff) {
+        List<String> rules = new ArrayList<>(2);
+        List<Object> args = new ArrayList<>(3);
+        if (keepLast > 0) {
+            rules.add("rn > ?");
+            args.add(keepLast);
+        }
+        if (maxAgeDays > 0) {
+            rules.add("created_at < ?");
+            args.add(cutoff);
+        }
+        args.add(maxPerPass);
+
+        // Rank each portfolio's reports newest first, once per pass
+        String sql = "SELECT id, s3_path FROM ("
+                + "SELECT id, s3_path, created_at, "
+                + "ROW_NUMBER() OVER (PARTITION BY portfolio_id ORDER BY created_at DESC, id DESC) AS rn "
+                + "FROM report) ranked "
+                + "WHERE " + String.join(" OR ", rules) + " ORDER BY id LIMIT ?";
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Report report = new Report();
+            report.setId(rs.getLong(1));
+            report.setS3Path(rs.getString(2));
+            return report;
+        }, args.toArray());
+    }
+}
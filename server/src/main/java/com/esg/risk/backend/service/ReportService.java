@@ -15,41 +15,55 @@ import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 
+import com.esg.risk.backend.dto.HoldingRisk;
+import com.esg.risk.backend.dto.PortfolioRisk;
 import com.esg.risk.backend.model.Holding;
 import com.esg.risk.backend.model.Report;
-import com.esg.risk.backend.repository.HoldingRepository;
 import com.esg.risk.backend.repository.ReportRepository;
 
 @Service
 public class ReportService {
 
-    private final HoldingRepository holdingRepository;
+    private final HoldingLoader holdingLoader;
     private final MinioService minioService;
     private final ReportRepository reportRepository;
     private final ESGService esgService;
     private final BreakdownService breakdownService;
     private final StressTestService stressTestService;
+    private final DimensionService dimensionService;
+    private final RiskModelService riskModelService;
 
     public ReportService(
-            HoldingRepository holdingRepository,
+            HoldingLoader holdingLoader,
             MinioService minioService,
             ReportRepository reportRepository,
             ESGService esgService,
             BreakdownService breakdownService,
-            StressTestService stressTestService) {
-        this.holdingRepository = holdingRepository;
+            StressTestService stressTestService,
+            DimensionService dimensionService,
+            RiskModelService riskModelService) {
+        this.holdingLoader = holdingLoader;
         this.minioService = minioService;
         this.reportRepository = reportRepository;
         this.esgService = esgService;
         this.breakdownService = breakdownService;
         this.stressTestService = stressTestService;
+        this.dimensionService = dimensionService;
+        this.riskModelService = riskModelService;
     }
 
     /**
      * Generate an XLSX report with comprehensive portfolio analysis
      */
     public Report generateXlsxReport(Long portfolioId) throws Exception {
-        List<Holding> holdings = holdingRepository.findByPortfolioId(portfolioId);
+        return generateXlsxReport(portfolioId, null);
+    }
+
+    /**
+     * Generate an XLSX report, pacing the upload with {@code uploadLimiter} if given
+     */
+    public Report generateXlsxReport(Long portfolioId, RateLimiter uploadLimiter) throws Exception {
+        List<Holding> holdings = holdingLoader.load(portfolioId);
         
         try (Workbook workbook = new XSSFWorkbook();
              ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
@@ -79,6 +93,10 @@ public class ReportService {
             // Sheet 5: Stress Test Results
             Sheet stressSheet = workbook.createSheet("Stress Tests");
             createStressTestSheet(stressSheet, holdings, headerStyle);
+
+            // Sheet 6: Covariance Risk
+            Sheet riskSheet = workbook.createSheet("Risk");
+            createRiskSheet(riskSheet, holdings, headerStyle);
             
             workbook.write(outputStream);
             byte[] data = outputStream.toByteArray();
@@ -86,6 +104,9 @@ public class ReportService {
             String objectName = String.format("reports/%d/report-%s.xlsx",
                     portfolioId, System.currentTimeMillis());
 
+            if (uploadLimiter != null) {
+                uploadLimiter.acquire();
+            }
             try (ByteArrayInputStream in = new ByteArrayInputStream(data)) {
                 minioService.uploadFile(objectName, in, data.length, 
                     "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
@@ -142,8 +163,8 @@ public class ReportService {
             Row row = sheet.createRow(rowNum++);
             row.createCell(0).setCellValue(holding.getTicker());
             row.createCell(1).setCellValue(holding.getWeight());
-            row.createCell(2).setCellValue(holding.getSector());
-            row.createCell(3).setCellValue(holding.getRegion());
+            row.createCell(2).setCellValue(dimensionService.sectorName(holding.getSectorId()));
+            row.createCell(3).setCellValue(dimensionService.regionName(holding.getRegionId()));
             row.createCell(4).setCellValue(holding.getEsgScore());
         }
         
@@ -243,4 +264,65 @@ public class ReportService {
         sheet.autoSizeColumn(1);
         sheet.autoSizeColumn(2);
     }
-}
\ No newline at end of file
+
+    private void createRiskSheet(Sheet sheet, List<Holding> holdings, CellStyle headerStyle) {
+        Row headerRow = sheet.createRow(0);
+        Cell cell = headerRow.createCell(0);
+        cell.setCellValue("Covariance Risk");
+        cell.setCellStyle(headerStyle);
+
+        if (!riskModelService.isLoaded()) {
+            sheet.createRow(2).createCell(0).setCellValue("No covariance matrix loaded");
+            sheet.autoSizeColumn(0);
+            return;
+        }
+        PortfolioRisk risk = riskModelService.risk(holdings);
+
+        Row row = sheet.createRow(2);
+        row.createCell(0).setCellValue("Volatility");
+        row.createCell(1).setCellValue(String.format("%.4f", risk.getVolatility()));
+        row = sheet.createRow(3);
+        row.createCell(0).setCellValue("Unmapped Weight (%)");
+        row.createCell(1).setCellValue(String.format("%.2f", risk.getUnmappedWeight()));
+
+        headerRow = sheet.createRow(5);
+        headerRow.createCell(0).setCellValue("Factor");
+        headerRow.createCell(1).setCellValue("Risk Contribution");
+        headerRow.getCell(0).setCellStyle(headerStyle);
+        headerRow.getCell(1).setCellStyle(headerStyle);
+
+        int rowNum = 6;
+        for (Map.Entry<String, Double> entry : risk.getFactorContributions().entrySet()) {
+            row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(entry.getKey());
+            row.createCell(1).setCellValue(entry.getValue());
+        }
+
+        rowNum++;
+        headerRow = sheet.createRow(rowNum++);
+        headerRow.createCell(0).setCellValue("Ticker");
+        headerRow.createCell(1).setCellValue("Weight (%)");
+        headerRow.createCell(2).setCellValue("Factor");
+        headerRow.createCell(3).setCellValue("Marginal Contribution");
+        headerRow.createCell(4).setCellValue("Risk Contribution");
+        headerRow.createCell(5).setCellValue("Share of Risk (%)");
+        for (int i = 0; i < 6; i++) {
+            headerRow.getCell(i).setCellStyle(headerStyle);
+        }
+
+        // Largest contributors first, as returned by the risk model
+        for (HoldingRisk holding : risk.getHoldings()) {
+            row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(holding.getTicker());
+            row.createCell(1).setCellValue(holding.getWeight());
+            row.createCell(2).setCellValue(holding.getFactor() == null ? "" : holding.getFactor());
+            row.createCell(3).setCellValue(holding.getMarginalContribution());
+            row.createCell(4).setCellValue(holding.getRiskContribution());
+            row.createCell(5).setCellValue(String.format("%.2f", holding.getRiskShare()));
+        }
+
+        for (int i = 0; i < 6; i++) {
+            sheet.autoSizeColumn(i);
+        }
+    }
+}
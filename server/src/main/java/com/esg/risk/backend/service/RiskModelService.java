@@ -0,0 +1,359 @@
+package com.esg.risk.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.esg.risk.backend.dto.CovarianceLoadSummary;
+import com.esg.risk.backend.dto.HoldingRisk;
+import com.esg.risk.backend.dto.PageResult;
+import com.esg.risk.backend.dto.PortfolioRisk;
+import com.esg.risk.backend.dto.PortfolioVolatility;
+import com.esg.risk.backend.model.Holding;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Portfolio volatility and risk contributions from a sector/region factor
+ * covariance matrix.
+ *
+ * Each holding maps to the factor "Sector:Region", or "Sector" if the matrix
+ * has no regional split for it. Portfolio variance is x' * Sigma * x over the
+ * factor exposures x. The matrix is loaded once, published like the ticker
+ * reference data, and shared read-only. Batch runs compute all portfolios as
+ * one blocked matrix product split across a worker pool.
+ *
+ * The ranking of all portfolios is kept for the published matrix and the
+ * portfolio data it was computed from, so paging through it costs one small
+ * query per page. Any ingest or delete changes the data fingerprint and the
+ * next page recomputes it.
+ */
+@Service
+public class RiskModelService {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskModelService.class);
+
+    static final String OBJECT_NAME = "reference/covariance.csv";
+
+    private static final int ROWS_PER_TASK = 256;
+
+    private static final String EXPOSURE_SQL =
+            "SELECT h.portfolio_id, p.name, h.sector_id, h.region_id, SUM(h.weight) "
+                    + "FROM holding h JOIN portfolio p ON p.id = h.portfolio_id "
+                    + "GROUP BY h.portfolio_id, p.name, h.sector_id, h.region_id";
+
+    // data_version is a random token per ingest, so the XOR changes with every add, rewrite or delete
+    private static final String DATA_VERSION_SQL =
+            "SELECT COUNT(*), COALESCE(CAST(BIT_XOR(data_version) AS SIGNED), 0) FROM portfolio";
+
+    private final DimensionService dimensionService;
+    private final MinioService minioService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService workers;
+
+    private volatile Model model;
+    private volatile Ranking ranking;
+    private final Object rankingLock = new Object();
+
+    public RiskModelService(
+            DimensionService dimensionService,
+            MinioService minioService,
+            JdbcTemplate jdbcTemplate,
+            @Value("${risk.parallelism:0}") int parallelism) {
+        this.dimensionService = dimensionService;
+        this.minioService = minioService;
+        this.jdbcTemplate = jdbcTemplate;
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "risk-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void restore() {
+        try (InputStream in = minioService.getFile(OBJECT_NAME)) {
+            model = new Model(CovarianceMatrix.parse(in));
+            log.info("restored covariance matrix factors={}", model.matrix.size());
+        } catch (Exception e) {
+            log.info("no covariance matrix restored: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the covariance matrix (see {@link CovarianceMatrix#parse} for the format).
+     */
+    public synchronized CovarianceLoadSummary load(InputStream file) throws Exception {
+        long start = System.currentTimeMillis();
+        byte[] bytes = file.readAllBytes();
+        CovarianceMatrix matrix = CovarianceMatrix.parse(new ByteArrayInputStream(bytes));
+        try (InputStream in = new ByteArrayInputStream(bytes)) {
+            minioService.uploadFile(OBJECT_NAME, in, bytes.length, "text/csv");
+        }
+        model = new Model(matrix);
+
+        long millis = System.currentTimeMillis() - start;
+        log.info("published covariance matrix factors={} ms={}", matrix.size(), millis);
+        return new CovarianceLoadSummary(matrix.size(), millis);
+    }
+
+    public boolean isLoaded() {
+        return model != null;
+    }
+
+    /**
+     * Volatility of one portfolio with per-holding and per-factor contributions.
+     */
+    public PortfolioRisk risk(List<Holding> holdings) {
+        Model m = requireModel();
+        CovarianceMatrix matrix = m.matrix;
+        int n = holdings.size();
+        double total = holdings.stream().mapToDouble(Holding::getWeight).sum();
+
+        int[] factors = new int[n];
+        double[] x = new double[matrix.size()];
+        double unmapped = 0;
+        for (int i = 0; i < n; i++) {
+            Holding h = holdings.get(i);
+            factors[i] = m.factor(h.getSectorId(), h.getRegionId());
+            if (factors[i] < 0) {
+                unmapped += h.getWeight();
+            } else if (total != 0) {
+                x[factors[i]] += h.getWeight() / total;
+            }
+        }
+
+        double[] sigmaX = new double[matrix.size()];
+        matrix.multiply(x, sigmaX, 0, 1);
+        double volatility = Math.sqrt(Math.max(0, dot(x, sigmaX, 0, matrix.size())));
+
+        Map<String, Double> byFactor = new LinkedHashMap<>();
+        for (int f = 0; f < matrix.size(); f++) {
+            if (x[f] != 0 && volatility > 0) {
+                byFactor.put(matrix.label(f), x[f] * sigmaX[f] / volatility);
+            }
+        }
+
+        List<HoldingRisk> byHolding = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Holding h = holdings.get(i);
+            int f = factors[i];
+            double marginal = f < 0 || volatility == 0 ? 0.0 : sigmaX[f] / volatility;
+            double contribution = total == 0 ? 0.0 : h.getWeight() / total * marginal;
+            byHolding.add(new HoldingRisk(h.getId(), h.getTicker(), h.getWeight(),
+                    f < 0 ? null : matrix.label(f), marginal, contribution,
+                    volatility == 0 ? 0.0 : contribution / volatility * 100));
+        }
+        byHolding.sort(Comparator.comparingDouble(HoldingRisk::getRiskContribution).reversed());
+
+        return new PortfolioRisk(volatility, total == 0 ? 0.0 : unmapped / total * 100, byFactor, byHolding);
+    }
+
+    /**
+     * Volatility of every portfolio, highest first, from one aggregate query and
+     * one parallel matrix product, reused for later pages until the matrix or
+     * the portfolios change.
+     */
+    public PageResult<PortfolioVolatility> riskAll(int page, int size) throws InterruptedException {
+        Model m = requireModel();
+        long[] version = dataVersion();
+        Ranking r = ranking;
+        if (r == null || !r.matches(m, version)) {
+            // One caller computes; concurrent pages wait for its result
+            synchronized (rankingLock) {
+                r = ranking;
+                if (r == null || !r.matches(m, version)) {
+                    long start = System.currentTimeMillis();
+                    r = new Ranking(m, version, rank(m));
+                    ranking = r;
+                    log.info("ranked portfolio risk portfolios={} ms={}", r.all.size(),
+                            System.currentTimeMillis() - start);
+                }
+            }
+        }
+
+        List<PortfolioVolatility> all = r.all;
+        int from = (int) Math.min((long) page * size, all.size());
+        int to = Math.min(from + size, all.size());
+        return new PageResult<>(new ArrayList<>(all.subList(from, to)), page, size, all.size());
+    }
+
+    private long[] dataVersion() {
+        long[] version = new long[2];
+        jdbcTemplate.query(DATA_VERSION_SQL, (RowCallbackHandler) rs -> {
+            version[0] = rs.getLong(1);
+            version[1] = rs.getLong(2);
+        });
+        return version;
+    }
+
+    private List<PortfolioVolatility> rank(Model m) throws InterruptedException {
+        CovarianceMatrix matrix = m.matrix;
+        int f = matrix.size();
+
+        Map<Long, Integer> rows = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<double[]> exposures = new ArrayList<>();
+        List<double[]> totals = new ArrayList<>(); // {total weight, unmapped weight}
+
+        jdbcTemplate.query(EXPOSURE_SQL, (RowCallbackHandler) rs -> {
+            long portfolioId = rs.getLong(1);
+            int sectorId = rs.getInt(3);
+            Integer sector = rs.wasNull() ? null : sectorId;
+            int regionId = rs.getInt(4);
+            Integer region = rs.wasNull() ? null : regionId;
+            double weight = rs.getDouble(5);
+
+            int row = rows.computeIfAbsent(portfolioId, id -> {
+                ids.add(id);
+                exposures.add(new double[f]);
+                totals.add(new double[2]);
+                return ids.size() - 1;
+            });
+            if (names.size() == row) {
+                names.add(rs.getString(2));
+            }
+            int factor = m.factor(sector, region);
+            totals.get(row)[0] += weight;
+            if (factor < 0) {
+                totals.get(row)[1] += weight;
+            } else {
+                exposures.get(row)[factor] += weight;
+            }
+        });
+
+        int portfolios = ids.size();
+        double[] x = new double[portfolios * f];
+        for (int r = 0; r < portfolios; r++) {
+            double total = totals.get(r)[0];
+            double[] exposure = exposures.get(r);
+            for (int k = 0; k < f; k++) {
+                x[r * f + k] = total == 0 ? 0.0 : exposure[k] / total;
+            }
+        }
+        exposures.clear();
+
+        double[] y = new double[portfolios * f];
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int from = 0; from < portfolios; from += ROWS_PER_TASK) {
+            int start = from;
+            int end = Math.min(from + ROWS_PER_TASK, portfolios);
+            tasks.add(() -> {
+                matrix.multiply(x, y, start, end);
+                return null;
+            });
+        }
+        for (Future<Void> future : workers.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Risk calculation failed", e.getCause());
+            }
+        }
+
+        List<PortfolioVolatility> all = new ArrayList<>(portfolios);
+        for (int r = 0; r < portfolios; r++) {
+            double total = totals.get(r)[0];
+            all.add(new PortfolioVolatility(ids.get(r), names.get(r),
+                    Math.sqrt(Math.max(0, dot(x, y, r * f, f))),
+                    total == 0 ? 0.0 : totals.get(r)[1] / total * 100));
+        }
+        all.sort(Comparator.comparingDouble(PortfolioVolatility::getVolatility).reversed());
+        return all;
+    }
+
+    private Model requireModel() {
+        Model m = model;
+        if (m == null) {
+            throw new IllegalStateException("No covariance matrix loaded; POST one to /api/reference/covariance");
+        }
+        return m;
+    }
+
+    private static double dot(double[] a, double[] b, int offset, int length) {
+        double sum = 0;
+        for (int i = offset; i < offset + length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * All portfolios ranked under one matrix at one data fingerprint.
+     */
+    private static final class Ranking {
+        final Model model;
+        final long[] version;
+        final List<PortfolioVolatility> all;
+
+        Ranking(Model model, long[] version, List<PortfolioVolatility> all) {
+            this.model = model;
+            this.version = version;
+            this.all = all;
+        }
+
+        boolean matches(Model m, long[] v) {
+            return model == m && Arrays.equals(version, v);
+        }
+    }
+
+    /**
+     * A published matrix with its (sector, region) -> factor lookups, so a reload
+     * starts with a fresh cache.
+     */
+    private final class Model {
+        final CovarianceMatrix matrix;
+        final Map<Long, Integer> factors = new ConcurrentHashMap<>();
+
+        Model(CovarianceMatrix matrix) {
+            this.matrix = matrix;
+        }
+
+        int factor(Integer sectorId, Integer regionId) {
+            if (sectorId == null) {
+                return -1;
+            }
+            long key = ((long) sectorId << 32) | (regionId == null ? 0 : regionId & 0xffffffffL);
+            return factors.computeIfAbsent(key, k -> {
+                String sector = dimensionService.sectorName(sectorId);
+                if (sector == null) {
+                    return -1;
+                }
+                String region = regionId == null ? null : dimensionService.regionName(regionId);
+                int f = region == null ? -1 : matrix.indexOf(sector + ":" + region);
+                return f >= 0 ? f : matrix.indexOf(sector);
+            });
+        }
+    }
+}
@@ -4,10 +4,47 @@ import com.esg.risk.backend.model.Holding;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class StressTestService {
 
+    /**
+     * Oil Shock scenario:
+     * Cut Energy weights by 50%
+     */
+    private static final Scenario OIL_SHOCK = new Scenario(1.0, Map.of("energy", 0.5));
+
+    /**
+     * Climate Policy scenario:
+     * Penalize "Utilities" and "Energy" (−40%),
+     * Reward "Renewables" (+20%),
+     */
+    private static final Scenario CLIMATE_POLICY = new Scenario(1.0,
+            Map.of("energy", 0.6, "utilities", 0.6, "renewables", 1.2));
+
+    /**
+     * Market Crash scenario:
+     * Reduce all holdings by 30%
+     */
+    private static final Scenario MARKET_CRASH = new Scenario(0.7, Map.of());
+
+    private static final Map<String, Scenario> SCENARIOS = Map.of(
+            "oil-shock", OIL_SHOCK,
+            "climate-policy", CLIMATE_POLICY,
+            "market-crash", MARKET_CRASH);
+
+    private final DimensionService dimensionService;
+
+    // Sector names never change for an id, so each (scenario, sector id) is resolved once
+    private final Map<Scenario, Map<Integer, Double>> multipliers = new ConcurrentHashMap<>();
+
+    public StressTestService(DimensionService dimensionService) {
+        this.dimensionService = dimensionService;
+    }
+
     /**
      * Run a named stress test scenario.
      *
@@ -16,64 +53,49 @@ public class StressTestService {
      * @return new portfolio value (1.0 = 100%)
      */
     public double runScenario(List<Holding> holdings, String scenario) {
-        switch (scenario.toLowerCase()) {
-            case "oil-shock":
-                return applyOilShock(holdings);
-            case "climate-policy":
-                return applyClimatePolicyShock(holdings);
-            case "market-crash":
-                return applyMarketCrash(holdings);
-            default:
-                throw new IllegalArgumentException("Unknown scenario: " + scenario);
-        }
-    }
-
-    /**
-     * Oil Shock scenario:
-     * Cut Energy weights by 50%
-     */
-    private double applyOilShock(List<Holding> holdings) {
+        Scenario s = scenario(scenario);
         double total = 0.0;
         for (Holding h : holdings) {
-            double adjustedWeight = h.getWeight();
-            if ("Energy".equalsIgnoreCase(h.getSector())) {
-                adjustedWeight *= 0.5;
-            }
-            total += adjustedWeight;
+            total += h.getWeight() * multiplier(s, h.getSectorId());
         }
         return total;
     }
 
     /**
-     * Climate Policy scenario:
-     * Penalize "Utilities" and "Energy" (−40%),
-     * Reward "Renewables" (+20%),
+     * Factor a holding in the given sector is scaled by under a scenario.
      */
-    private double applyClimatePolicyShock(List<Holding> holdings) {
-        double total = 0.0;
-        for (Holding h : holdings) {
-            double adjustedWeight = h.getWeight();
-            String sector = h.getSector() == null ? "" : h.getSector();
+    public double sectorMultiplier(String scenario, Integer sectorId) {
+        return multiplier(scenario(scenario), sectorId);
+    }
 
-            if ("Energy".equalsIgnoreCase(sector) || "Utilities".equalsIgnoreCase(sector)) {
-                adjustedWeight *= 0.6;
-            }
-            if ("Renewables".equalsIgnoreCase(sector)) {
-                adjustedWeight *= 1.2;
-            }
+    public List<String> scenarioNames() {
+        return List.of("oil-shock", "climate-policy", "market-crash");
+    }
 
-            total += adjustedWeight;
+    private Scenario scenario(String name) {
+        Scenario s = SCENARIOS.get(name.toLowerCase(Locale.ROOT));
+        if (s == null) {
+            throw new IllegalArgumentException("Unknown scenario: " + name);
         }
-        return total;
+        return s;
     }
 
-    /**
-     * Market Crash scenario:
-     * Reduce all holdings by 30%
-     */
-    private double applyMarketCrash(List<Holding> holdings) {
-        return holdings.stream()
-                .mapToDouble(h -> h.getWeight() * 0.7)
-                .sum();
+    private double multiplier(Scenario scenario, Integer sectorId) {
+        if (sectorId == null) {
+            return scenario.baseMultiplier();
+        }
+        return multipliers
+                .computeIfAbsent(scenario, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(sectorId, id -> scenario.multiplierFor(dimensionService.sectorName(id)));
+    }
+
+    private record Scenario(double baseMultiplier, Map<String, Double> sectorMultipliers) {
+
+        double multiplierFor(String sectorName) {
+            if (sectorName == null) {
+                return baseMultiplier;
+            }
+            return sectorMultipliers.getOrDefault(sectorName.toLowerCase(Locale.ROOT), baseMultiplier);
+        }
     }
-}
\ No newline at end of file
+}
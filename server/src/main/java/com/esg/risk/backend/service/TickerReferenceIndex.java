@@ -0,0 +1,270 @@
+package com.esg.risk.backend.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, primitive-keyed lookup table of ticker reference attributes.
+ *
+ * Tickers of up to 12 characters from [A-Z0-9./-] are packed into a single
+ * {@code long} (base 40) and stored in an open-addressing table, so a lookup
+ * is one encode plus a few array probes with no allocation. Sector and region
+ * are stored as dimension ids (see {@link DimensionService}), which keeps each
+ * row to a handful of primitive slots. Anything that does not pack falls back
+ * to a small String map.
+ *
+ * Instances never change after {@link Builder#build()}; updates build a new
+ * index and swap the reference.
+ */
+public final class TickerReferenceIndex {
+
+    public static final int NOT_FOUND = -1;
+
+    private static final int BASE = 40;
+    private static final int MAX_PACKED_LENGTH = 12;
+
+    private final long[] keys;       // packed ticker per slot, 0 = empty
+    private final int[] slotRows;    // row index per slot
+    private final int mask;
+
+    private final long[] tickers;    // packed ticker per row (0 when in fallback)
+    private final int[] sectorIds;
+    private final int[] regionIds;
+    private final double[] esgScores;
+    private final Map<String, Integer> fallback;
+    private final String[] fallbackTickers;
+    private final int size;
+
+    private TickerReferenceIndex(Builder b) {
+        this.size = b.size;
+        this.tickers = Arrays.copyOf(b.tickers, size);
+        this.sectorIds = Arrays.copyOf(b.sectorIds, size);
+        this.regionIds = Arrays.copyOf(b.regionIds, size);
+        this.esgScores = Arrays.copyOf(b.esgScores, size);
+        this.fallback = Map.copyOf(b.fallback);
+        this.fallbackTickers = new String[size];
+        b.fallback.forEach((ticker, row) -> fallbackTickers[row] = ticker);
+
+        int capacity = Integer.highestOneBit(Math.max(4, size * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.slotRows = new int[capacity];
+        this.mask = capacity - 1;
+        for (int row = 0; row < size; row++) {
+            long key = tickers[row];
+            if (key != 0) {
+                int slot = slotOf(key);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                slotRows[slot] = row;
+            }
+        }
+    }
+
+    public static TickerReferenceIndex empty() {
+        return new Builder().build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Row of a ticker (case-insensitive), or {@link #NOT_FOUND}.
+     */
+    public int find(CharSequence ticker) {
+        long key = pack(ticker);
+        if (key == 0) {
+            if (ticker == null) {
+                return NOT_FOUND;
+            }
+            Integer row = fallback.get(normalize(ticker));
+            return row == null ? NOT_FOUND : row;
+        }
+        int slot = slotOf(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == key) {
+                return slotRows[slot];
+            }
+            if (k == 0) {
+                return NOT_FOUND;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int sectorId(int row) {
+        return sectorIds[row];
+    }
+
+    public int regionId(int row) {
+        return regionIds[row];
+    }
+
+    public double esgScore(int row) {
+        return esgScores[row];
+    }
+
+    public String ticker(int row) {
+        return tickers[row] != 0 ? unpack(tickers[row]) : fallbackTickers[row];
+    }
+
+    /**
+     * Start a builder pre-filled with this index's rows, for merging updates.
+     */
+    public Builder toBuilder() {
+        Builder b = new Builder();
+        for (int row = 0; row < size; row++) {
+            b.put(ticker(row), sectorIds[row], regionIds[row], esgScores[row]);
+        }
+        return b;
+    }
+
+    /**
+     * Pack a ticker into a non-zero long, or return 0 if it cannot be packed.
+     */
+    static long pack(CharSequence ticker) {
+        if (ticker == null) {
+            return 0;
+        }
+        int start = 0;
+        int end = ticker.length();
+        while (start < end && ticker.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && ticker.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (end == start || end - start > MAX_PACKED_LENGTH) {
+            return 0;
+        }
+        long packed = 0;
+        for (int i = start; i < end; i++) {
+            int code = code(ticker.charAt(i));
+            if (code == 0) {
+                return 0;
+            }
+            packed = packed * BASE + code;
+        }
+        return packed;
+    }
+
+    static String unpack(long packed) {
+        char[] chars = new char[MAX_PACKED_LENGTH];
+        int pos = chars.length;
+        long value = packed;
+        while (value != 0) {
+            int code = (int) Long.remainderUnsigned(value, BASE);
+            chars[--pos] = symbol(code);
+            value = Long.divideUnsigned(value, BASE);
+        }
+        return new String(chars, pos, chars.length - pos);
+    }
+
+    private static int code(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 1;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        switch (c) {
+            case '.':
+                return 37;
+            case '-':
+                return 38;
+            case '/':
+                return 39;
+            default:
+                return 0;
+        }
+    }
+
+    private static char symbol(int code) {
+        if (code <= 26) {
+            return (char) ('A' + code - 1);
+        }
+        if (code <= 36) {
+            return (char) ('0' + code - 27);
+        }
+        return code == 37 ? '.' : code == 38 ? '-' : '/';
+    }
+
+    private static String normalize(CharSequence ticker) {
+        return ticker.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    private int slotOf(long key) {
+        // murmur3 fmix64
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    /**
+     * Accumulates rows for a new index; a repeated ticker overwrites the earlier row.
+     */
+    public static final class Builder {
+
+        private long[] tickers = new long[1024];
+        private int[] sectorIds = new int[1024];
+        private int[] regionIds = new int[1024];
+        private double[] esgScores = new double[1024];
+        private final Map<Long, Integer> packedRows = new HashMap<>();
+        private final Map<String, Integer> fallback = new HashMap<>();
+        private int size;
+
+        public Builder put(String ticker, int sectorId, int regionId, double esgScore) {
+            long key = pack(ticker);
+            Integer row;
+            if (key != 0) {
+                row = packedRows.get(key);
+            } else {
+                row = fallback.get(normalize(ticker));
+            }
+            if (row == null) {
+                row = size++;
+                grow();
+                if (key != 0) {
+                    packedRows.put(key, row);
+                } else {
+                    fallback.put(normalize(ticker), row);
+                }
+            }
+            tickers[row] = key;
+            sectorIds[row] = sectorId;
+            regionIds[row] = regionId;
+            esgScores[row] = esgScore;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public TickerReferenceIndex build() {
+            return new TickerReferenceIndex(this);
+        }
+
+        private void grow() {
+            if (size > tickers.length) {
+                int capacity = tickers.length * 2;
+                tickers = Arrays.copyOf(tickers, capacity);
+                sectorIds = Arrays.copyOf(sectorIds, capacity);
+                regionIds = Arrays.copyOf(regionIds, capacity);
+                esgScores = Arrays.copyOf(esgScores, capacity);
+            }
+        }
+    }
+}
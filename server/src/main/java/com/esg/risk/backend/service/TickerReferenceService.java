@@ -0,0 +1,181 @@
+package com.esg.risk.backend.service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.esg.risk.backend.dto.ReferenceLoadSummary;
+import com.esg.risk.backend.dto.TickerReference;
+import com.esg.risk.backend.model.Holding;
+
+/**
+ * Shared ticker reference dataset used to enrich ticker+weight uploads.
+ *
+ * The current dataset is an immutable {@link TickerReferenceIndex}; loads build
+ * a new index off to the side and publish it with a single volatile write, so
+ * lookups never block and always see a complete dataset. The effective dataset
+ * is also written to the bucket and restored from there on startup.
+ */
+@Service
+public class TickerReferenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(TickerReferenceService.class);
+
+    static final String OBJECT_NAME = "reference/tickers.csv";
+
+    private final DimensionService dimensionService;
+    private final MinioService minioService;
+
+    private volatile TickerReferenceIndex index = TickerReferenceIndex.empty();
+
+    public TickerReferenceService(DimensionService dimensionService, MinioService minioService) {
+        this.dimensionService = dimensionService;
+        this.minioService = minioService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void restore() {
+        try (InputStream in = minioService.getFile(OBJECT_NAME)) {
+            ReferenceLoadSummary summary = publish(in, false, false);
+            log.info("restored ticker reference data tickers={}", summary.getTickers());
+        } catch (Exception e) {
+            log.info("no ticker reference data restored: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Load a vendor file with the columns ticker,sector,region,esgScore (header optional).
+     *
+     * @param merge keep existing tickers and overwrite only those in the file;
+     *              otherwise the file replaces the whole dataset
+     */
+    public synchronized ReferenceLoadSummary load(InputStream vendorFile, boolean merge) throws Exception {
+        return publish(vendorFile, merge, true);
+    }
+
+    /**
+     * Fill sector, region and ESG score from reference data where the upload left them empty.
+     *
+     * @return false if the ticker has no reference entry
+     */
+    public boolean enrich(Holding holding) {
+        TickerReferenceIndex current = index;
+        int row = current.find(holding.getTicker());
+        if (row == TickerReferenceIndex.NOT_FOUND) {
+            return false;
+        }
+        if (holding.getSectorId() == null && current.sectorId(row) != 0) {
+            holding.setSectorId(current.sectorId(row));
+        }
+        if (holding.getRegionId() == null && current.regionId(row) != 0) {
+            holding.setRegionId(current.regionId(row));
+        }
+        if (holding.getEsgScore() == null) {
+            holding.setEsgScore(current.esgScore(row));
+        }
+        return true;
+    }
+
+    public TickerReference lookup(String ticker) {
+        TickerReferenceIndex current = index;
+        int row = current.find(ticker);
+        if (row == TickerReferenceIndex.NOT_FOUND) {
+            return null;
+        }
+        return new TickerReference(current.ticker(row),
+                dimensionService.sectorName(nonZero(current.sectorId(row))),
+                dimensionService.regionName(nonZero(current.regionId(row))),
+                current.esgScore(row));
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private ReferenceLoadSummary publish(InputStream vendorFile, boolean merge, boolean persist) throws Exception {
+        long start = System.currentTimeMillis();
+        TickerReferenceIndex.Builder builder = merge ? index.toBuilder() : new TickerReferenceIndex.Builder();
+        int loaded = 0;
+        int rejected = 0;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(vendorFile, StandardCharsets.UTF_8));
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (lineNo == 1 && fields.length > 0 && "ticker".equalsIgnoreCase(fields[0].trim())) {
+                continue;
+            }
+            try {
+                if (fields.length < 4 || fields[0].isBlank()) {
+                    throw new IllegalArgumentException("expected ticker,sector,region,esgScore");
+                }
+                builder.put(fields[0].trim(),
+                        idOrZero(dimensionService.sectorId(fields[1])),
+                        idOrZero(dimensionService.regionId(fields[2])),
+                        Double.parseDouble(fields[3].trim()));
+                loaded++;
+            } catch (Exception e) {
+                rejected++;
+                if (rejected <= 10) {
+                    log.warn("rejected reference line={} error=\"{}\"", lineNo, e.getMessage());
+                }
+            }
+        }
+
+        TickerReferenceIndex built = builder.build();
+        if (persist) {
+            store(built);
+        }
+        index = built;
+
+        long millis = System.currentTimeMillis() - start;
+        log.info("published ticker reference data tickers={} loaded={} rejected={} ms={}",
+                built.size(), loaded, rejected, millis);
+        return new ReferenceLoadSummary(loaded, rejected, built.size(), millis);
+    }
+
+    private void store(TickerReferenceIndex data) throws Exception {
+        StringWriter out = new StringWriter(data.size() * 32 + 32);
+        out.write("ticker,sector,region,esgScore\n");
+        for (int row = 0; row < data.size(); row++) {
+            out.write(data.ticker(row));
+            out.write(',');
+            out.write(nullToEmpty(dimensionService.sectorName(nonZero(data.sectorId(row)))));
+            out.write(',');
+            out.write(nullToEmpty(dimensionService.regionName(nonZero(data.regionId(row)))));
+            out.write(',');
+            out.write(Double.toString(data.esgScore(row)));
+            out.write('\n');
+        }
+        byte[] bytes = out.toString().getBytes(StandardCharsets.UTF_8);
+        try (InputStream in = new ByteArrayInputStream(bytes)) {
+            minioService.uploadFile(OBJECT_NAME, in, bytes.length, "text/csv");
+        }
+    }
+
+    private static int idOrZero(Integer id) {
+        return id == null ? 0 : id;
+    }
+
+    private static Integer nonZero(int id) {
+        return id == 0 ? null : id;
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+}
@@ -0,0 +1,114 @@
+package com.esg.risk.backend.service.reader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary columnar portfolio format (.esgc) for machine-to-machine feeds.
+ *
+ * <pre>
+ * int    magic 'ESGC'
+ * short  version (1)
+ * int    row count n
+ * dict   sectors:  int count, then per entry: short length + UTF-8 bytes
+ * dict   regions:  same layout
+ * n x    ticker:   short length + UTF-8 bytes
+ * n x    double    weight (fraction, e.g. 0.15)
+ * n x    double    ESG score (NaN when absent)
+ * n x    int       sector dictionary index (-1 when absent)
+ * n x    int       region dictionary index (-1 when absent)
+ * </pre>
+ *
+ * All values are big-endian.
+ */
+public final class ColumnarPortfolioFormat {
+
+    public static final String CONTENT_TYPE = "application/x-esg-columnar";
+    public static final String EXTENSION = ".esgc";
+
+    static final int MAGIC = 0x45534743; // "ESGC"
+    static final short VERSION = 1;
+
+    private ColumnarPortfolioFormat() {
+    }
+
+    /**
+     * Write one portfolio; all arrays must have the same length and sector/region
+     * entries may be null.
+     */
+    public static void write(OutputStream target, String[] tickers, double[] weights,
+            String[] sectors, String[] regions, double[] esgScores) throws IOException {
+        int n = tickers.length;
+        if (weights.length != n || sectors.length != n || regions.length != n || esgScores.length != n) {
+            throw new IllegalArgumentException("All columns must have " + n + " rows");
+        }
+
+        List<String> sectorDict = new ArrayList<>();
+        List<String> regionDict = new ArrayList<>();
+        int[] sectorIdx = encode(sectors, sectorDict);
+        int[] regionIdx = encode(regions, regionDict);
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target, 64 * 1024));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(n);
+        writeDictionary(out, sectorDict);
+        writeDictionary(out, regionDict);
+        for (String ticker : tickers) {
+            writeString(out, ticker);
+        }
+        for (double w : weights) {
+            out.writeDouble(w);
+        }
+        for (double e : esgScores) {
+            out.writeDouble(e);
+        }
+        for (int idx : sectorIdx) {
+            out.writeInt(idx);
+        }
+        for (int idx : regionIdx) {
+            out.writeInt(idx);
+        }
+        out.flush();
+    }
+
+    private static int[] encode(String[] values, List<String> dictionary) {
+        Map<String, Integer> ids = new HashMap<>();
+        int[] encoded = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            String v = values[i];
+            if (v == null) {
+                encoded[i] = -1;
+                continue;
+            }
+            encoded[i] = ids.computeIfAbsent(v, k -> {
+                dictionary.add(k);
+                return dictionary.size() - 1;
+            });
+        }
+        return encoded;
+    }
+
+    private static void writeDictionary(DataOutputStream out, List<String> dictionary) throws IOException {
+        out.writeInt(dictionary.size());
+        for (String value : dictionary) {
+            writeString(out, value);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Value too long: " + value.substring(0, 32) + "...");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,118 @@
+package com.esg.risk.backend.service.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads the binary {@link ColumnarPortfolioFormat}.
+ *
+ * Columns are read with absolute ByteBuffer accessors, so the only objects
+ * created per row are the ticker String and nothing else; dictionary entries
+ * are decoded once per file. Rows without a ticker or weight are rejected
+ * like in the text formats.
+ */
+@Component
+public class ColumnarPortfolioReader implements PortfolioReader {
+
+    @Override
+    public String format() {
+        return "columnar";
+    }
+
+    @Override
+    public List<String> contentTypes() {
+        return List.of(ColumnarPortfolioFormat.CONTENT_TYPE);
+    }
+
+    @Override
+    public List<String> extensions() {
+        return List.of(ColumnarPortfolioFormat.EXTENSION);
+    }
+
+    @Override
+    public void read(InputStream in, PortfolioRowSink sink) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(in.readAllBytes());
+        try {
+            if (buf.getInt() != ColumnarPortfolioFormat.MAGIC) {
+                throw new IOException("Not a columnar portfolio file");
+            }
+            short version = buf.getShort();
+            if (version != ColumnarPortfolioFormat.VERSION) {
+                throw new IOException("Unsupported columnar format version " + version);
+            }
+            int n = buf.getInt();
+            // Each row needs at least a ticker length plus 24 bytes of columns
+            if (n < 0 || n > buf.remaining() / 26) {
+                throw new IOException("Truncated columnar portfolio file");
+            }
+            String[] sectors = readDictionary(buf);
+            String[] regions = readDictionary(buf);
+
+            // Tickers are variable length; remember where each starts
+            int[] tickerOffsets = new int[n];
+            for (int i = 0; i < n; i++) {
+                tickerOffsets[i] = buf.position();
+                int length = buf.getShort() & 0xFFFF;
+                buf.position(buf.position() + length);
+            }
+            int weights = buf.position();
+            int esgScores = weights + n * Double.BYTES;
+            int sectorIdx = esgScores + n * Double.BYTES;
+            int regionIdx = sectorIdx + n * Integer.BYTES;
+            if (regionIdx + n * Integer.BYTES > buf.limit()) {
+                throw new IOException("Truncated columnar portfolio file");
+            }
+
+            byte[] bytes = buf.array();
+            PortfolioRow row = new PortfolioRow();
+            for (int i = 0; i < n; i++) {
+                row.clear(i + 1);
+                int offset = tickerOffsets[i];
+                int length = buf.getShort(offset) & 0xFFFF;
+                String ticker = new String(bytes, offset + Short.BYTES, length, StandardCharsets.UTF_8).trim();
+                if (ticker.isEmpty()) {
+                    sink.reject(i + 1, RejectReason.MISSING_TICKER, null);
+                    continue;
+                }
+                row.setTicker(ticker);
+                row.setWeight(buf.getDouble(weights + i * Double.BYTES));
+                if (Double.isNaN(row.getWeight())) {
+                    sink.reject(i + 1, RejectReason.INVALID_WEIGHT, "missing weight");
+                    continue;
+                }
+                row.setEsgScore(buf.getDouble(esgScores + i * Double.BYTES));
+                row.setSector(lookup(sectors, buf.getInt(sectorIdx + i * Integer.BYTES)));
+                row.setRegion(lookup(regions, buf.getInt(regionIdx + i * Integer.BYTES)));
+                sink.accept(row);
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException
+                | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Corrupt columnar portfolio file: " + e.getMessage(), e);
+        }
+    }
+
+    private static String[] readDictionary(ByteBuffer buf) throws IOException {
+        int count = buf.getInt();
+        // Every entry needs at least its length prefix
+        if (count < 0 || count > buf.remaining() / Short.BYTES) {
+            throw new IOException("Truncated columnar portfolio file");
+        }
+        String[] values = new String[count];
+        for (int i = 0; i < values.length; i++) {
+            int length = buf.getShort() & 0xFFFF;
+            values[i] = new String(buf.array(), buf.position(), length, StandardCharsets.UTF_8);
+            buf.position(buf.position() + length);
+        }
+        return values;
+    }
+
+    private static String lookup(String[] dictionary, int index) {
+        return index < 0 ? null : dictionary[index];
+    }
+}
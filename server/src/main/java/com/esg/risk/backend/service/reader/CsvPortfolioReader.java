@@ -0,0 +1,316 @@
+package com.esg.risk.backend.service.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads ticker,weight,sector,region,esgScore CSV straight from a byte buffer.
+ *
+ * Lines are split in place on the raw bytes and numbers are parsed from the
+ * bytes without building a String. Sector and region values repeat heavily,
+ * so they go through a small byte-keyed cache and are only decoded once.
+ * The header line is optional and detected by a non-numeric weight.
+ */
+@Component
+public class CsvPortfolioReader implements PortfolioReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FIELDS = 5;
+
+    @Override
+    public String format() {
+        return "csv";
+    }
+
+    @Override
+    public List<String> contentTypes() {
+        return List.of("text/csv", "application/csv");
+    }
+
+    @Override
+    public List<String> extensions() {
+        return List.of(".csv");
+    }
+
+    @Override
+    public void read(InputStream in, PortfolioRowSink sink) throws IOException {
+        ReadableByteChannel channel = Channels.newChannel(in);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.flip();
+
+        LineParser parser = new LineParser(sink);
+        long lineNumber = 0;
+        int scanFrom = 0;
+        boolean eof = false;
+
+        while (true) {
+            byte[] bytes = buffer.array();
+            int start = buffer.position();
+            int end = buffer.limit();
+
+            int newline = -1;
+            for (int i = Math.max(start, scanFrom); i < end; i++) {
+                if (bytes[i] == '\n') {
+                    newline = i;
+                    break;
+                }
+            }
+
+            if (newline >= 0) {
+                parser.parse(bytes, start, newline, ++lineNumber);
+                buffer.position(newline + 1);
+                scanFrom = newline + 1;
+                continue;
+            }
+            if (eof) {
+                if (start < end) {
+                    parser.parse(bytes, start, end, ++lineNumber);
+                }
+                return;
+            }
+
+            // No complete line left: keep the partial line and read more
+            int partial = end - start;
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+            if (channel.read(buffer) < 0) {
+                eof = true;
+            }
+            buffer.flip();
+            scanFrom = partial;
+        }
+    }
+
+    /**
+     * Parses one line at a time into a reused {@link PortfolioRow}.
+     */
+    private static final class LineParser {
+
+        private final PortfolioRowSink sink;
+        private final PortfolioRow row = new PortfolioRow();
+        private final int[] starts = new int[FIELDS];
+        private final int[] ends = new int[FIELDS];
+        private final boolean[] quoted = new boolean[FIELDS];
+        private final StringCache sectors = new StringCache();
+        private final StringCache regions = new StringCache();
+        private boolean firstLine = true;
+
+        LineParser(PortfolioRowSink sink) {
+            this.sink = sink;
+        }
+
+        void parse(byte[] b, int start, int end, long lineNumber) {
+            boolean header = firstLine;
+            firstLine = false;
+            if (end > start && b[end - 1] == '\r') {
+                end--;
+            }
+            if (isBlank(b, start, end)) {
+                return;
+            }
+
+            int fields = split(b, start, end);
+            if (fields < 2) {
+                sink.reject(lineNumber, RejectReason.INSUFFICIENT_CELLS, "fields: " + fields);
+                return;
+            }
+            row.clear(lineNumber);
+            try {
+                row.setWeight(parseDouble(b, starts[1], ends[1]));
+            } catch (NumberFormatException e) {
+                if (!header) {
+                    sink.reject(lineNumber, RejectReason.INVALID_WEIGHT, text(b, 1));
+                }
+                return;
+            }
+            String ticker = text(b, 0);
+            if (ticker == null) {
+                sink.reject(lineNumber, RejectReason.MISSING_TICKER, null);
+                return;
+            }
+            if (Double.isNaN(row.getWeight())) {
+                sink.reject(lineNumber, RejectReason.INVALID_WEIGHT, "missing weight");
+                return;
+            }
+            row.setTicker(ticker);
+            if (fields > 2) {
+                row.setSector(quoted[2] ? text(b, 2) : sectors.get(b, starts[2], ends[2]));
+            }
+            if (fields > 3) {
+                row.setRegion(quoted[3] ? text(b, 3) : regions.get(b, starts[3], ends[3]));
+            }
+            if (fields > 4) {
+                try {
+                    row.setEsgScore(parseDouble(b, starts[4], ends[4]));
+                } catch (NumberFormatException e) {
+                    sink.reject(lineNumber, RejectReason.INVALID_VALUE, "esgScore: " + text(b, 4));
+                    return;
+                }
+            }
+            sink.accept(row);
+        }
+
+        /**
+         * Record trimmed field bounds for up to {@link #FIELDS} fields; returns the field count.
+         */
+        private int split(byte[] b, int start, int end) {
+            int count = 0;
+            int pos = start;
+            while (count < FIELDS) {
+                int fieldStart = pos;
+                int fieldEnd;
+                boolean isQuoted = false;
+                while (fieldStart < end && b[fieldStart] == ' ') {
+                    fieldStart++;
+                }
+                if (fieldStart < end && b[fieldStart] == '"') {
+                    isQuoted = true;
+                    int i = fieldStart + 1;
+                    while (i < end && !(b[i] == '"' && (i + 1 >= end || b[i + 1] != '"'))) {
+                        i += b[i] == '"' ? 2 : 1;
+                    }
+                    fieldEnd = i;
+                    fieldStart++;
+                    pos = i + 1;
+                    while (pos < end && b[pos] != ',') {
+                        pos++;
+                    }
+                } else {
+                    pos = fieldStart;
+                    while (pos < end && b[pos] != ',') {
+                        pos++;
+                    }
+                    fieldEnd = pos;
+                    while (fieldEnd > fieldStart && b[fieldEnd - 1] <= ' ') {
+                        fieldEnd--;
+                    }
+                }
+                starts[count] = fieldStart;
+                ends[count] = Math.min(fieldEnd, end);
+                quoted[count] = isQuoted;
+                count++;
+                if (pos >= end) {
+                    break;
+                }
+                pos++; // skip comma
+            }
+            return count;
+        }
+
+        private String text(byte[] b, int field) {
+            int s = starts[field];
+            int e = ends[field];
+            if (s >= e) {
+                return null;
+            }
+            String value = new String(b, s, e - s, StandardCharsets.UTF_8);
+            return quoted[field] ? value.replace("\"\"", "\"") : value;
+        }
+
+        private static boolean isBlank(byte[] b, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (b[i] > ' ') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    /**
+     * Parse a decimal number from ASCII bytes; an empty field is NaN.
+     *
+     * Plain decimals of up to 15 significant digits are computed exactly from
+     * the digits. Anything else (exponents, longer mantissas) falls back to
+     * {@link Double#parseDouble}.
+     */
+    static double parseDouble(byte[] b, int start, int end) {
+        if (start >= end) {
+            return Double.NaN;
+        }
+        int i = start;
+        boolean negative = false;
+        if (b[i] == '-' || b[i] == '+') {
+            negative = b[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean dot = false;
+        for (; i < end; i++) {
+            byte c = b[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (dot) {
+                    scale++;
+                }
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return slowParse(b, start, end);
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("not a number: " + new String(b, start, end - start, StandardCharsets.UTF_8));
+        }
+        if (digits > 15 || scale >= POWERS_OF_TEN.length) {
+            return slowParse(b, start, end);
+        }
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private static double slowParse(byte[] b, int start, int end) {
+        return Double.parseDouble(new String(b, start, end - start, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Direct-mapped cache from byte ranges to decoded Strings.
+     */
+    private static final class StringCache {
+
+        private static final int SLOTS = 256;
+
+        private final byte[][] keys = new byte[SLOTS][];
+        private final String[] values = new String[SLOTS];
+
+        String get(byte[] b, int start, int end) {
+            if (start >= end) {
+                return null;
+            }
+            int hash = 1;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + b[i];
+            }
+            int slot = (hash ^ (hash >>> 16)) & (SLOTS - 1);
+            byte[] key = keys[slot];
+            if (key != null && Arrays.equals(key, 0, key.length, b, start, end)) {
+                return values[slot];
+            }
+            String value = new String(b, start, end - start, StandardCharsets.UTF_8);
+            keys[slot] = Arrays.copyOfRange(b, start, end);
+            values[slot] = value;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.esg.risk.backend.service.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads the first sheet of an .xlsx or .xls workbook; row 0 is the header.
+ */
+@Component
+public class ExcelPortfolioReader implements PortfolioReader {
+
+    @Override
+    public String format() {
+        return "excel";
+    }
+
+    @Override
+    public List<String> contentTypes() {
+        return List.of("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                "application/vnd.ms-excel");
+    }
+
+    @Override
+    public List<String> extensions() {
+        return List.of(".xlsx", ".xls");
+    }
+
+    @Override
+    public void read(InputStream in, PortfolioRowSink sink) throws IOException {
+        // WorkbookFactory detects HSSF (.xls) vs XSSF (.xlsx) from the content
+        try (Workbook workbook = WorkbookFactory.create(in)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            PortfolioRow parsed = new PortfolioRow();
+
+            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+                Row row = sheet.getRow(i);
+                if (row == null) {
+                    continue;
+                }
+                if (row.getPhysicalNumberOfCells() < 2) {
+                    sink.reject(i, RejectReason.INSUFFICIENT_CELLS, "cells: " + row.getPhysicalNumberOfCells());
+                    continue;
+                }
+                try {
+                    parsed.clear(i);
+                    String ticker = stringCell(row, 0);
+                    if (ticker == null || ticker.isBlank()) {
+                        sink.reject(i, RejectReason.MISSING_TICKER, null);
+                        continue;
+                    }
+                    parsed.setTicker(ticker.trim());
+                    parsed.setWeight(numericCell(row, 1));
+                    if (Double.isNaN(parsed.getWeight())) {
+                        sink.reject(i, RejectReason.INVALID_WEIGHT, "missing weight");
+                        continue;
+                    }
+                    parsed.setSector(stringCell(row, 2));
+                    parsed.setRegion(stringCell(row, 3));
+                    parsed.setEsgScore(numericCell(row, 4));
+                } catch (Exception e) {
+                    sink.reject(i, RejectReason.INVALID_VALUE, e.getMessage());
+                    continue;
+                }
+                sink.accept(parsed);
+            }
+        }
+    }
+
+    private static String stringCell(Row row, int index) {
+        Cell cell = row.getCell(index);
+        if (cell == null || cell.getCellType() == CellType.BLANK) {
+            return null;
+        }
+        return cell.getStringCellValue();
+    }
+
+    private static double numericCell(Row row, int index) {
+        Cell cell = row.getCell(index);
+        if (cell == null || cell.getCellType() == CellType.BLANK) {
+            return Double.NaN;
+        }
+        return cell.getNumericCellValue();
+    }
+}
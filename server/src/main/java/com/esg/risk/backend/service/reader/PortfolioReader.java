@@ -0,0 +1,31 @@
+package com.esg.risk.backend.service.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Parses one portfolio file format into {@link PortfolioRow}s.
+ *
+ * Every format carries the same logical columns as the original workbook:
+ * ticker, weight, sector, region, ESG score. Only ticker and weight are required.
+ */
+public interface PortfolioReader {
+
+    /**
+     * Short format name, e.g. "excel".
+     */
+    String format();
+
+    /**
+     * Content types this reader accepts; the first one is used when storing files.
+     */
+    List<String> contentTypes();
+
+    /**
+     * Lower-case file extensions including the dot, e.g. ".csv".
+     */
+    List<String> extensions();
+
+    void read(InputStream in, PortfolioRowSink sink) throws IOException;
+}
@@ -0,0 +1,58 @@
+package com.esg.risk.backend.service.reader;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the {@link PortfolioReader} for an upload, by content type first and
+ * file extension second (browsers often send application/octet-stream).
+ */
+@Component
+public class PortfolioReaders {
+
+    private final List<PortfolioReader> readers;
+
+    public PortfolioReaders(List<PortfolioReader> readers) {
+        this.readers = readers;
+    }
+
+    /**
+     * @return the matching reader, or null if the format is not supported
+     */
+    public PortfolioReader find(String fileName, String contentType) {
+        if (contentType != null) {
+            String type = contentType.toLowerCase(Locale.ROOT);
+            int params = type.indexOf(';');
+            if (params >= 0) {
+                type = type.substring(0, params).trim();
+            }
+            for (PortfolioReader reader : readers) {
+                if (reader.contentTypes().contains(type)) {
+                    return reader;
+                }
+            }
+        }
+        if (fileName != null) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            for (PortfolioReader reader : readers) {
+                for (String extension : reader.extensions()) {
+                    if (name.endsWith(extension)) {
+                        return reader;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    public PortfolioReader select(String fileName, String contentType) {
+        PortfolioReader reader = find(fileName, contentType);
+        if (reader == null) {
+            throw new IllegalArgumentException("Unsupported portfolio file '" + fileName
+                    + "'. Supported formats: Excel (.xlsx, .xls), CSV (.csv) and columnar (.esgc).");
+        }
+        return reader;
+    }
+}
@@ -0,0 +1,29 @@
+package com.esg.risk.backend.service.reader;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One parsed input row. Readers reuse a single instance for the whole file,
+ * so sinks must copy what they keep.
+ */
+@Getter
+@Setter
+public class PortfolioRow {
+
+    private long rowNumber;
+    private String ticker;
+    private double weight;     // fraction as written in the file, e.g. 0.15
+    private String sector;     // null when absent
+    private String region;     // null when absent
+    private double esgScore;   // NaN when absent
+
+    void clear(long rowNumber) {
+        this.rowNumber = rowNumber;
+        this.ticker = null;
+        this.weight = Double.NaN;
+        this.sector = null;
+        this.region = null;
+        this.esgScore = Double.NaN;
+    }
+}
@@ -0,0 +1,14 @@
+package com.esg.risk.backend.service.reader;
+
+/**
+ * Receives rows from a {@link PortfolioReader} as they are parsed.
+ */
+public interface PortfolioRowSink {
+
+    void accept(PortfolioRow row);
+
+    /**
+     * Called for a row the reader could not parse.
+     */
+    void reject(long rowNumber, RejectReason reason, String detail);
+}
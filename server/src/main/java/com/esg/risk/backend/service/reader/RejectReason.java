@@ -0,0 +1,12 @@
+package com.esg.risk.backend.service.reader;
+
+/**
+ * Why an input row was not turned into a holding.
+ */
+public enum RejectReason {
+    INSUFFICIENT_CELLS,
+    MISSING_TICKER,
+    INVALID_WEIGHT,
+    INVALID_VALUE,
+    NO_REFERENCE_DATA
+}
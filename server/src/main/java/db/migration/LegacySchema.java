@@ -0,0 +1,49 @@
+package db.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * information_schema checks for the conditional upgrade migrations. Databases
+ * created by Hibernate (ddl-auto=update) before Flyway took over can be in any
+ * state between the original schema and V1, so every change is applied only
+ * if it is missing.
+ */
+final class LegacySchema {
+
+    private final JdbcTemplate jdbc;
+
+    LegacySchema(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    boolean hasColumn(String table, String column) {
+        return count("SELECT COUNT(*) FROM information_schema.COLUMNS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?", table, column) > 0;
+    }
+
+    /**
+     * Whether {@code table} has an index whose first column is {@code column}.
+     */
+    boolean hasIndexOn(String table, String column) {
+        return count("SELECT COUNT(*) FROM information_schema.STATISTICS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ? AND SEQ_IN_INDEX = 1",
+                table, column) > 0;
+    }
+
+    boolean hasUniqueIndexOn(String table, String column) {
+        return count("SELECT COUNT(*) FROM information_schema.STATISTICS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ? AND SEQ_IN_INDEX = 1 "
+                + "AND NON_UNIQUE = 0", table, column) > 0;
+    }
+
+    boolean hasForeignKey(String table, String column, String referencedTable) {
+        return count("SELECT COUNT(*) FROM information_schema.KEY_COLUMN_USAGE "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ? "
+                + "AND REFERENCED_TABLE_NAME = ?", table, column, referencedTable) > 0;
+    }
+
+    private long count(String sql, Object... args) {
+        Long n = jdbc.queryForObject(sql, Long.class, args);
+        return n == null ? 0 : n;
+    }
+}
@@ -0,0 +1,74 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Moves holdings of Hibernate-created databases from the free-text
+ * {@code sector}/{@code region} columns to the sector and region dimension
+ * tables.
+ *
+ * Every distinct name (trimmed, case-insensitive, as DimensionService matches
+ * them) becomes a dimension row, holdings get its id in bounded id ranges,
+ * and the text columns are dropped once nothing is left unmapped. A schema
+ * created by V1 has no text columns and is left alone.
+ */
+public class V1_1__Backfill_holding_dimensions extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V1_1__Backfill_holding_dimensions.class);
+
+    static final long BATCH = 50_000;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        migrate(new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true)));
+    }
+
+    public void migrate(JdbcTemplate jdbc) {
+        LegacySchema schema = new LegacySchema(jdbc);
+        backfill(jdbc, schema, "sector");
+        backfill(jdbc, schema, "region");
+    }
+
+    private static void backfill(JdbcTemplate jdbc, LegacySchema schema, String dimension) {
+        String idColumn = dimension + "_id";
+        if (!schema.hasColumn("holding", idColumn)) {
+            jdbc.execute("ALTER TABLE holding ADD COLUMN " + idColumn + " INT");
+        }
+        if (schema.hasColumn("holding", dimension)) {
+            int names = jdbc.update("INSERT INTO " + dimension + " (name) "
+                    + "SELECT MIN(TRIM(h." + dimension + ")) FROM holding h "
+                    + "WHERE TRIM(h." + dimension + ") <> '' "
+                    + "AND NOT EXISTS (SELECT 1 FROM " + dimension + " d "
+                    + "WHERE LOWER(d.name) = LOWER(TRIM(h." + dimension + "))) "
+                    + "GROUP BY LOWER(TRIM(h." + dimension + "))");
+
+            long mapped = 0;
+            Long maxId = jdbc.queryForObject("SELECT MAX(id) FROM holding", Long.class);
+            for (long lo = 0; maxId != null && lo <= maxId; lo += BATCH) {
+                mapped += jdbc.update("UPDATE holding h JOIN " + dimension + " d "
+                        + "ON LOWER(d.name) = LOWER(TRIM(h." + dimension + ")) "
+                        + "SET h." + idColumn + " = d.id "
+                        + "WHERE h.id >= ? AND h.id < ? AND h." + idColumn + " IS NULL", lo, lo + BATCH);
+            }
+            log.info("backfilled holding.{}: {} new {} rows, {} holdings mapped", idColumn, names, dimension, mapped);
+
+            Long unmapped = jdbc.queryForObject("SELECT COUNT(*) FROM holding WHERE TRIM(" + dimension + ") <> '' "
+                    + "AND " + idColumn + " IS NULL", Long.class);
+            if (unmapped != null && unmapped > 0) {
+                // Keep the text so nothing is lost; the entity no longer maps it
+                log.warn("holding.{} kept: {} holdings could not be mapped", dimension, unmapped);
+            } else {
+                jdbc.execute("ALTER TABLE holding DROP COLUMN " + dimension);
+            }
+        }
+        if (!schema.hasForeignKey("holding", idColumn, dimension)) {
+            jdbc.execute("ALTER TABLE holding ADD CONSTRAINT fk_holding_" + dimension
+                    + " FOREIGN KEY (" + idColumn + ") REFERENCES " + dimension + " (id)");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Brings the remaining tables of Hibernate-created databases in line with
+ * V1: V1 only creates tables that do not exist, so columns, constraints and
+ * indexes added since the original schema are applied here when missing.
+ */
+public class V1_2__Upgrade_legacy_schema extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        migrate(new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true)));
+    }
+
+    public void migrate(JdbcTemplate jdbc) {
+        LegacySchema schema = new LegacySchema(jdbc);
+
+        if (!schema.hasColumn("portfolio", "content_hash")) {
+            jdbc.execute("ALTER TABLE portfolio ADD COLUMN content_hash VARCHAR(64)");
+        }
+        if (!schema.hasUniqueIndexOn("portfolio", "content_hash")) {
+            jdbc.execute("CREATE UNIQUE INDEX ux_portfolio_content_hash ON portfolio (content_hash)");
+        }
+        if (!schema.hasForeignKey("holding", "portfolio_id", "portfolio")) {
+            jdbc.execute("ALTER TABLE holding ADD CONSTRAINT fk_holding_portfolio "
+                    + "FOREIGN KEY (portfolio_id) REFERENCES portfolio (id)");
+        }
+        if (!schema.hasIndexOn("ingestion_report", "portfolio_id")) {
+            jdbc.execute("CREATE INDEX ix_ingestion_report_portfolio ON ingestion_report (portfolio_id)");
+        }
+        if (!schema.hasUniqueIndexOn("metric_series_chunk", "series_key")) {
+            jdbc.execute("CREATE UNIQUE INDEX ux_metric_series_chunk ON metric_series_chunk (series_key, metric, period)");
+        }
+    }
+}
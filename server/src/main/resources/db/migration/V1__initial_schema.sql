@@ -0,0 +1,78 @@
+-- Schema previously generated by Hibernate (ddl-auto=update).
+-- IF NOT EXISTS lets databases created that way pick up only the tables they lack.
+
+CREATE TABLE IF NOT EXISTS sector (
+    id   INT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT ux_sector_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS region (
+    id   INT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT ux_region_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS portfolio (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    name         VARCHAR(255),
+    upload_date  DATE,
+    s3_path      VARCHAR(255),
+    content_hash VARCHAR(64),
+    PRIMARY KEY (id),
+    CONSTRAINT ux_portfolio_content_hash UNIQUE (content_hash)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS holding (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    portfolio_id BIGINT,
+    ticker       VARCHAR(255),
+    weight       DOUBLE,
+    sector_id    INT,
+    region_id    INT,
+    esg_score    DOUBLE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_holding_portfolio FOREIGN KEY (portfolio_id) REFERENCES portfolio (id),
+    CONSTRAINT fk_holding_sector FOREIGN KEY (sector_id) REFERENCES sector (id),
+    CONSTRAINT fk_holding_region FOREIGN KEY (region_id) REFERENCES region (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS report (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    portfolio_id BIGINT,
+    report_type  VARCHAR(255),
+    s3_path      VARCHAR(255),
+    created_at   DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS ingestion_report (
+    id            BIGINT NOT NULL AUTO_INCREMENT,
+    portfolio_id  BIGINT,
+    file_name     VARCHAR(255),
+    created_at    DATETIME(6),
+    total_rows    BIGINT NOT NULL,
+    accepted_rows BIGINT NOT NULL,
+    rejected_rows BIGINT NOT NULL,
+    reason_counts VARCHAR(255),
+    rejections    LONGBLOB,
+    truncated     BIT NOT NULL,
+    PRIMARY KEY (id),
+    INDEX ix_ingestion_report_portfolio (portfolio_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS metric_series_chunk (
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    series_key VARCHAR(255) NOT NULL,
+    metric     VARCHAR(32) NOT NULL,
+    period     INT NOT NULL,
+    first_day  INT NOT NULL,
+    last_day   INT NOT NULL,
+    last_value BIGINT NOT NULL,
+    points     INT NOT NULL,
+    data       MEDIUMBLOB,
+    PRIMARY KEY (id),
+    CONSTRAINT ux_metric_series_chunk UNIQUE (series_key, metric, period)
+) ENGINE = InnoDB;
@@ -0,0 +1,5 @@
+-- Every analytics read selects one portfolio's holdings. With portfolio_id
+-- leading and all read columns included, those queries (and the keyset export,
+-- which also orders by id) are answered from the index alone.
+CREATE INDEX ix_holding_portfolio_covering
+    ON holding (portfolio_id, id, sector_id, region_id, weight, esg_score, ticker);
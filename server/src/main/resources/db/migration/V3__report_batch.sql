@@ -0,0 +1,24 @@
+CREATE TABLE report_batch_run (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    status       VARCHAR(16),
+    triggered_by VARCHAR(16),
+    selection    VARCHAR(255),
+    created_at   DATETIME(6),
+    finished_at  DATETIME(6),
+    total        BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE report_batch_item (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    run_id       BIGINT NOT NULL,
+    portfolio_id BIGINT NOT NULL,
+    status       VARCHAR(16),
+    report_id    BIGINT,
+    millis       BIGINT,
+    error        VARCHAR(255),
+    finished_at  DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX ix_report_batch_item_run_status (run_id, status, id),
+    CONSTRAINT fk_report_batch_item_run FOREIGN KEY (run_id) REFERENCES report_batch_run (id)
+) ENGINE = InnoDB;
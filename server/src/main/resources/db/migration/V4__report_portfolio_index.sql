@@ -0,0 +1,4 @@
+-- Reports are listed per portfolio and ranked newest first by the retention
+-- purge; both read this index in order instead of scanning the table.
+CREATE INDEX ix_report_portfolio_created
+    ON report (portfolio_id, created_at, id);
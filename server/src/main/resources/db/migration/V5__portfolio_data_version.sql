@@ -0,0 +1,3 @@
+-- Version of a portfolio's holdings; local holding snapshots are only
+-- trusted while they were written at the current version.
+ALTER TABLE portfolio ADD COLUMN data_version BIGINT NOT NULL DEFAULT 1;
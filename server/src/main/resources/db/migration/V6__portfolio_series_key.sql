@@ -0,0 +1,4 @@
+-- History series a portfolio was uploaded into. NULL means the portfolio's
+-- own series ('portfolio-<id>'); histories recorded before this column were
+-- keyed by file name and can be continued by uploading with that name.
+ALTER TABLE portfolio ADD COLUMN series_key VARCHAR(255) NULL;
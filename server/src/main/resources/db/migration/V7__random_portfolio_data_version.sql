@@ -0,0 +1,4 @@
+-- data_version is a random token written on every ingest, so a snapshot left
+-- behind by an earlier portfolio with the same id never matches. Give the
+-- rows created before that their own tokens instead of the shared default 1.
+UPDATE portfolio SET data_version = CAST(CONV(SUBSTRING(MD5(CONCAT(UUID(), id)), 1, 15), 16, 10) AS UNSIGNED) + 2;
@@ -0,0 +1,4 @@
+-- Deleting a portfolio detaches its batch items from the reports it removes;
+-- this keeps that lookup off a scan of every run's items.
+CREATE INDEX ix_report_batch_item_portfolio
+    ON report_batch_item (portfolio_id);
@@ -0,0 +1,9 @@
+-- Backend replicas share report batch runs through these columns. The
+-- instance running a run owns it and keeps its heartbeat fresh; a run whose
+-- heartbeat has gone stale is claimed by another instance. running is 1 only
+-- for a RUNNING run, so the unique key lets at most one exist at a time.
+ALTER TABLE report_batch_run
+    ADD COLUMN owner     VARCHAR(64),
+    ADD COLUMN heartbeat DATETIME(6),
+    ADD COLUMN running   TINYINT AS (IF(status = 'RUNNING', 1, NULL)) STORED,
+    ADD CONSTRAINT ux_report_batch_run_running UNIQUE (running);
@@ -3,6 +3,7 @@ package com.esg.risk.backend;
 import com.esg.risk.backend.model.Holding;
 import com.esg.risk.backend.model.Portfolio;
 import com.esg.risk.backend.service.BreakdownService;
+import com.esg.risk.backend.service.DimensionService;
 
 import org.junit.jupiter.api.Test;
 
@@ -13,26 +14,28 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class BreakdownServiceTest {
 
+    private final DimensionService dimensions = TestDimensions.create();
+
     @Test
     void testSectorBreakdown() {
         Portfolio p = new Portfolio();
 
         Holding h1 = new Holding();
         h1.setPortfolio(p);
-        h1.setSector("Tech");
+        h1.setSectorId(dimensions.sectorId("Tech"));
         h1.setWeight(0.6);
 
         Holding h2 = new Holding();
         h2.setPortfolio(p);
-        h2.setSector("Energy");
+        h2.setSectorId(dimensions.sectorId("Energy"));
         h2.setWeight(0.3);
 
         Holding h3 = new Holding();
         h3.setPortfolio(p);
-        h3.setSector("Tech");
+        h3.setSectorId(dimensions.sectorId("Tech"));
         h3.setWeight(0.1);
 
-        BreakdownService service = new BreakdownService();
+        BreakdownService service = new BreakdownService(dimensions);
         Map<String, Double> breakdown = service.sectorBreakdown(Arrays.asList(h1, h2, h3));
 
         assertEquals(0.7, breakdown.get("Tech"), 0.01);
@@ -40,26 +43,43 @@ class BreakdownServiceTest {
         assertEquals(2, breakdown.size());
     }
 
+    @Test
+    void testSectorNamesAreCaseInsensitive() {
+        Holding h1 = new Holding();
+        h1.setSectorId(dimensions.sectorId("Energy"));
+        h1.setWeight(0.4);
+
+        Holding h2 = new Holding();
+        h2.setSectorId(dimensions.sectorId(" energy "));
+        h2.setWeight(0.2);
+
+        BreakdownService service = new BreakdownService(dimensions);
+        Map<String, Double> breakdown = service.sectorBreakdown(Arrays.asList(h1, h2));
+
+        assertEquals(0.6, breakdown.get("Energy"), 0.01);
+        assertEquals(1, breakdown.size());
+    }
+
     @Test
     void testRegionBreakdown() {
         Portfolio p = new Portfolio();
 
         Holding h1 = new Holding();
         h1.setPortfolio(p);
-        h1.setRegion("US");
+        h1.setRegionId(dimensions.regionId("US"));
         h1.setWeight(0.5);
 
         Holding h2 = new Holding();
         h2.setPortfolio(p);
-        h2.setRegion("EU");
+        h2.setRegionId(dimensions.regionId("EU"));
         h2.setWeight(0.25);
 
         Holding h3 = new Holding();
         h3.setPortfolio(p);
-        h3.setRegion("US");
+        h3.setRegionId(dimensions.regionId("US"));
         h3.setWeight(0.25);
 
-        BreakdownService service = new BreakdownService();
+        BreakdownService service = new BreakdownService(dimensions);
         Map<String, Double> breakdown = service.regionBreakdown(Arrays.asList(h1, h2, h3));
 
         assertEquals(0.75, breakdown.get("US"), 0.01);
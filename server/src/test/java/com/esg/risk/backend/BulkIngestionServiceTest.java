@@ -0,0 +1,138 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.esg.risk.backend.dto.BulkIngestionSummary;
+import com.esg.risk.backend.dto.IngestionResult;
+import com.esg.risk.backend.service.BulkIngestionService;
+import com.esg.risk.backend.service.MinioService;
+import com.esg.risk.backend.service.PortfolioIngestionService;
+
+class BulkIngestionServiceTest {
+
+    private final PortfolioIngestionService ingestion = mock(PortfolioIngestionService.class);
+    private final MinioService minio = mock(MinioService.class);
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    /**
+     * Every ingest takes a while and records how many run at the same time.
+     */
+    private void slowIngestion() throws Exception {
+        when(ingestion.isSupported(anyString(), isNull())).thenReturn(true);
+        when(ingestion.store(anyString(), isNull(), anyLong(), any())).thenAnswer(inv -> ingested(inv.getArgument(0)));
+        when(ingestion.ingestStored(anyString(), anyString(), any())).thenAnswer(inv -> ingested(inv.getArgument(0)));
+        when(minio.getFile(anyString())).thenAnswer(inv -> new ByteArrayInputStream(new byte[10]));
+    }
+
+    private IngestionResult ingested(String fileName) throws InterruptedException {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(30);
+        running.decrementAndGet();
+        IngestionResult result = new IngestionResult(fileName);
+        result.setStatus(IngestionResult.OK);
+        return result;
+    }
+
+    @Test
+    void testParallelismCappedBelowConnectionPool() throws Exception {
+        slowIngestion();
+        BulkIngestionService service = new BulkIngestionService(ingestion, minio, 8, 5, 1000);
+        try {
+            BulkIngestionSummary summary = service.ingestArchive(zip(12, 10));
+
+            assertEquals(3, summary.getParallelism());
+            assertEquals(12, summary.getSucceeded());
+            assertEquals(3, maxRunning.get());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void testSlotsAreSharedAcrossRequests() throws Exception {
+        slowIngestion();
+        BulkIngestionService service = new BulkIngestionService(ingestion, minio, 2, 10, 1000);
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<BulkIngestionSummary>> requests = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                List<String> keys = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    keys.add("portfolio/r" + r + "-" + i + ".csv");
+                }
+                requests.add(callers.submit(() -> service.ingestObjects(keys)));
+            }
+            for (Future<BulkIngestionSummary> request : requests) {
+                assertEquals(4, request.get(10, TimeUnit.SECONDS).getSucceeded());
+            }
+            assertTrue(maxRunning.get() <= 2, "at most 2 files in flight over all requests, saw " + maxRunning.get());
+        } finally {
+            callers.shutdownNow();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void testOversizedFilesAreRejected() throws Exception {
+        slowIngestion();
+        when(minio.getFile("portfolio/big.csv")).thenAnswer(inv -> new ByteArrayInputStream(new byte[101]));
+        BulkIngestionService service = new BulkIngestionService(ingestion, minio, 2, 10, 100);
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+                zip.putNextEntry(new ZipEntry("small.csv"));
+                zip.write(new byte[100]);
+                zip.putNextEntry(new ZipEntry("big.csv"));
+                zip.write(new byte[101]);
+            }
+            BulkIngestionSummary archive = service.ingestArchive(new ByteArrayInputStream(bytes.toByteArray()));
+
+            assertEquals(1, archive.getSucceeded());
+            assertEquals(1, archive.getFailed());
+            assertEquals("File exceeds 100 bytes", archive.getFiles().get(1).getError());
+            verify(ingestion, never()).store(eq("big.csv"), any(), anyLong(), any());
+
+            BulkIngestionSummary objects = service.ingestObjects(List.of("portfolio/big.csv"));
+            assertEquals(1, objects.getFailed());
+            verify(ingestion, never()).ingestStored(eq("big.csv"), anyString(), any());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static ByteArrayInputStream zip(int files, int size) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < files; i++) {
+                zip.putNextEntry(new ZipEntry("dir/p" + i + ".csv"));
+                zip.write(new byte[size]);
+            }
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
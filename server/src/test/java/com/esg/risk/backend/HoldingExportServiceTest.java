@@ -0,0 +1,146 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.esg.risk.backend.service.DimensionService;
+import com.esg.risk.backend.service.HoldingExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class HoldingExportServiceTest {
+
+    private final DimensionService dimensions = TestDimensions.create();
+    private final List<Object[]> rows = new ArrayList<>(); // id, ticker, weight, sector_id, region_id, esg_score
+    private final List<Long> pagesAfter = new ArrayList<>();
+
+    /**
+     * DataSource stand-in serving {@code rows} for PAGE_SQL's keyset query:
+     * parameters are (portfolio_id, last id, limit).
+     */
+    private DataSource database() throws Exception {
+        Map<Integer, Object> params = new HashMap<>();
+        PreparedStatement ps = mock(PreparedStatement.class, invocation -> {
+            switch (invocation.getMethod().getName()) {
+                case "setObject":
+                case "setLong":
+                case "setInt":
+                    params.put(invocation.getArgument(0), invocation.getArgument(1));
+                    return null;
+                case "executeQuery":
+                    long after = ((Number) params.get(2)).longValue();
+                    int limit = ((Number) params.get(3)).intValue();
+                    pagesAfter.add(after);
+                    List<Object[]> page = new ArrayList<>();
+                    for (Object[] row : rows) {
+                        if ((Long) row[0] > after && page.size() < limit) {
+                            page.add(row);
+                        }
+                    }
+                    return resultSet(page);
+                default:
+                    return null;
+            }
+        });
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(ps);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private static ResultSet resultSet(List<Object[]> page) {
+        int[] cursor = {-1};
+        Object[] last = {null};
+        return mock(ResultSet.class, invocation -> {
+            String method = invocation.getMethod().getName();
+            if ("next".equals(method)) {
+                return ++cursor[0] < page.size();
+            }
+            if ("wasNull".equals(method)) {
+                return last[0] == null;
+            }
+            if (method.startsWith("get") && invocation.getArguments().length == 1
+                    && invocation.getArgument(0) instanceof Integer column) {
+                Object value = page.get(cursor[0])[column - 1];
+                last[0] = value;
+                switch (method) {
+                    case "getLong":
+                        return value == null ? 0L : ((Number) value).longValue();
+                    case "getInt":
+                        return value == null ? 0 : ((Number) value).intValue();
+                    case "getDouble":
+                        return value == null ? 0.0 : ((Number) value).doubleValue();
+                    case "getString":
+                        return value;
+                    default:
+                        return null;
+                }
+            }
+            return null;
+        });
+    }
+
+    private HoldingExportService service(int pageSize) throws Exception {
+        return new HoldingExportService(database(), dimensions, new ObjectMapper(), pageSize);
+    }
+
+    @Test
+    void testCsvEscapingAndMissingValues() throws Exception {
+        Integer tech = dimensions.sectorId("Tech");
+        rows.add(new Object[] {1L, "AAPL", 15.0, tech, null, 85.0});
+        rows.add(new Object[] {2L, "BRK,\"B\"", null, null, null, null});
+        rows.add(new Object[] {3L, "LINE\r\nBREAK", 2.5, null, null, 40.0});
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service(10).exportCsv(7L, out);
+
+        assertEquals("id,ticker,weight,sector,region,esgScore\n"
+                + "1,AAPL,15.0,Tech,,85.0\n"
+                + "2,\"BRK,\"\"B\"\"\",,,,\n"
+                + "3,\"LINE\r\nBREAK\",2.5,,,40.0\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testNdjsonWritesNullForMissingValues() throws Exception {
+        rows.add(new Object[] {1L, "XOM", null, null, null, null});
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service(10).exportNdjson(7L, out);
+
+        assertEquals("{\"id\":1,\"ticker\":\"XOM\",\"weight\":null,\"sector\":null,\"region\":null,\"esgScore\":null}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testKeysetPagesCoverEveryRowOnce() throws Exception {
+        for (long id = 1; id <= 5; id++) {
+            rows.add(new Object[] {id * 10, "T" + id, 20.0, null, null, 50.0});
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service(2).exportCsv(7L, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(6, lines.length);
+        assertEquals("10,T1,20.0,,,50.0", lines[1]);
+        assertEquals("50,T5,20.0,,,50.0", lines[5]);
+        // Two full pages, then a short one that ends the export
+        assertEquals(List.of(0L, 20L, 40L), pagesAfter);
+    }
+}
@@ -0,0 +1,151 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.esg.risk.backend.dto.LoaderStats;
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.model.Portfolio;
+import com.esg.risk.backend.repository.HoldingRepository;
+import com.esg.risk.backend.service.HoldingLoader;
+import com.esg.risk.backend.service.HoldingSnapshotStore;
+
+class HoldingLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testConcurrentLoadsShareOneQuery() throws Exception {
+        HoldingRepository repository = mock(HoldingRepository.class);
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findByPortfolioId(1L)).thenAnswer(inv -> {
+            queryStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new Holding());
+        });
+
+        HoldingLoader loader = new HoldingLoader(repository, noSnapshots());
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<List<Holding>>> results = new ArrayList<>();
+            results.add(pool.submit(() -> loader.load(1L)));
+            assertEquals(true, queryStarted.await(5, TimeUnit.SECONDS));
+            results.add(pool.submit(() -> loader.load(1L)));
+            results.add(pool.submit(() -> loader.load(1L)));
+
+            // Wait until both followers have attached to the in-flight load
+            for (int i = 0; i < 1000 && loader.stats().getDeduplicated() < 2; i++) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            List<Holding> first = results.get(0).get(5, TimeUnit.SECONDS);
+            assertSame(first, results.get(1).get(5, TimeUnit.SECONDS));
+            assertSame(first, results.get(2).get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(repository, times(1)).findByPortfolioId(1L);
+        LoaderStats stats = loader.stats();
+        assertEquals(3, stats.getRequests());
+        assertEquals(1, stats.getQueries());
+        assertEquals(2, stats.getDeduplicated());
+    }
+
+    @Test
+    void testSequentialLoadsQueryAgain() {
+        HoldingRepository repository = mock(HoldingRepository.class);
+        when(repository.findByPortfolioId(1L)).thenReturn(List.of());
+
+        HoldingLoader loader = new HoldingLoader(repository, noSnapshots());
+        loader.load(1L);
+        loader.load(1L);
+
+        verify(repository, times(2)).findByPortfolioId(1L);
+        assertEquals(0, loader.stats().getDeduplicated());
+    }
+
+    @Test
+    void testCurrentSnapshotSkipsQuery() {
+        HoldingRepository repository = mock(HoldingRepository.class);
+        HoldingSnapshotStore snapshots = mock(HoldingSnapshotStore.class);
+        when(snapshots.read(1L)).thenReturn(List.of(new Holding()));
+
+        HoldingLoader loader = new HoldingLoader(repository, snapshots);
+        assertEquals(1, loader.load(1L).size());
+
+        verify(repository, never()).findByPortfolioId(1L);
+        assertEquals(0, loader.stats().getQueries());
+        assertEquals(1, loader.stats().getSnapshotHits());
+    }
+
+    @Test
+    void testQueryRebuildsSnapshot() {
+        HoldingRepository repository = mock(HoldingRepository.class);
+        HoldingSnapshotStore snapshots = noSnapshots();
+        List<Holding> holdings = List.of(new Holding());
+        when(repository.findByPortfolioId(1L)).thenReturn(holdings);
+
+        new HoldingLoader(repository, snapshots).load(1L);
+
+        verify(snapshots).save(1L, holdings);
+    }
+
+    @Test
+    void testLoadAfterQueryIsServedFromSnapshot() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setId(1L);
+        portfolio.setDataVersion(42L);
+        Holding holding = new Holding();
+        holding.setId(5L);
+        holding.setTicker("AAPL");
+        holding.setWeight(100.0);
+        holding.setPortfolio(portfolio);
+        HoldingRepository repository = mock(HoldingRepository.class);
+        when(repository.findByPortfolioId(1L)).thenReturn(List.of(holding));
+        JdbcTemplate database = mock(JdbcTemplate.class, invocation ->
+                "queryForList".equals(invocation.getMethod().getName()) ? List.of(42L) : null);
+
+        HoldingLoader loader = new HoldingLoader(repository,
+                new HoldingSnapshotStore(database, true, dir.toString(), 16));
+        loader.load(1L);
+        List<Holding> second = loader.load(1L);
+
+        verify(repository, times(1)).findByPortfolioId(1L);
+        assertEquals(1, loader.stats().getQueries());
+        assertEquals(1, loader.stats().getSnapshotHits());
+        assertEquals("AAPL", second.get(0).getTicker());
+        assertEquals(42L, second.get(0).getPortfolio().getDataVersion());
+    }
+
+    /**
+     * Store without a current snapshot for any portfolio.
+     */
+    private static HoldingSnapshotStore noSnapshots() {
+        HoldingSnapshotStore snapshots = mock(HoldingSnapshotStore.class);
+        when(snapshots.read(anyLong())).thenReturn(null);
+        return snapshots;
+    }
+}
@@ -0,0 +1,126 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.esg.risk.backend.service.HoldingPartitionManager;
+
+class HoldingPartitionManagerTest {
+
+    private final List<String> ddl = new ArrayList<>();
+    private List<String> bounds = List.of("10", "20", "30", "40", "50", "60", "70", "MAXVALUE");
+    private List<Long> otherPortfoliosInRange = List.of();
+    private long portfoliosFromRangeEnd = 1;
+
+    /**
+     * JdbcTemplate stand-in: holding is already partitioned in ranges of 10 up to 70,
+     * the newest portfolio is 5, and every executed statement is recorded.
+     */
+    private JdbcTemplate database() {
+        return mock(JdbcTemplate.class, invocation -> {
+            String sql = invocation.getArgument(0);
+            switch (invocation.getMethod().getName()) {
+                case "queryForList":
+                    return sql.contains("information_schema") ? bounds : otherPortfoliosInRange;
+                case "queryForObject":
+                    if (sql.contains("MAX(id)")) {
+                        return 5L;
+                    }
+                    if (sql.contains("information_schema")) {
+                        return 1L;
+                    }
+                    return portfoliosFromRangeEnd;
+                case "execute":
+                    ddl.add(sql);
+                    return null;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    @Test
+    void testDisabledDoesNothing() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        HoldingPartitionManager manager = new HoldingPartitionManager(jdbc, false, 10, 64);
+
+        manager.initialize();
+        manager.ensureCapacity(1000);
+
+        assertFalse(manager.dropPortfolio(1));
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void testExtendsAheadOfNewPortfolios() {
+        HoldingPartitionManager manager = new HoldingPartitionManager(database(), true, 10, 64);
+        manager.initialize();
+        assertTrue(ddl.isEmpty(), "enough partitions at startup");
+
+        manager.ensureCapacity(50);
+
+        assertEquals(1, ddl.size());
+        assertEquals("ALTER TABLE holding REORGANIZE PARTITION pmax INTO ("
+                + "PARTITION p70 VALUES LESS THAN (80), PARTITION p80 VALUES LESS THAN (90), "
+                + "PARTITION p90 VALUES LESS THAN (100), PARTITION p100 VALUES LESS THAN (110), "
+                + "PARTITION p110 VALUES LESS THAN (120), PARTITION pmax VALUES LESS THAN MAXVALUE)", ddl.get(0));
+
+        manager.ensureCapacity(51);
+        assertEquals(1, ddl.size(), "no DDL while still ahead");
+    }
+
+    @Test
+    void testDropsPartitionOnlyWhenPortfolioIsAlone() {
+        HoldingPartitionManager manager = new HoldingPartitionManager(database(), true, 10, 64);
+        manager.initialize();
+
+        otherPortfoliosInRange = List.of(45L);
+        assertFalse(manager.dropPortfolio(42));
+        assertTrue(ddl.isEmpty());
+
+        otherPortfoliosInRange = List.of();
+        assertTrue(manager.dropPortfolio(42));
+        assertEquals(List.of("ALTER TABLE holding DROP PARTITION p40"), ddl);
+    }
+
+    @Test
+    void testKeepsPartitionWhileIngestsCanStillLandInIt() {
+        HoldingPartitionManager manager = new HoldingPartitionManager(database(), true, 10, 64);
+        manager.initialize();
+
+        // Nothing at or past id 49 yet, so the next upload may get 43
+        portfoliosFromRangeEnd = 0;
+
+        assertFalse(manager.dropPortfolio(42));
+        assertTrue(ddl.isEmpty());
+    }
+
+    @Test
+    void testStopsExtendingAtPartitionLimit() {
+        List<String> full = new ArrayList<>();
+        for (int i = 1; i < 8190; i++) {
+            full.add(Integer.toString(i * 10));
+        }
+        full.add("MAXVALUE");
+        bounds = full;
+        HoldingPartitionManager manager = new HoldingPartitionManager(database(), true, 10, 64);
+        manager.initialize();
+
+        manager.ensureCapacity(81880);
+        assertEquals(List.of("ALTER TABLE holding REORGANIZE PARTITION pmax INTO ("
+                + "PARTITION p81890 VALUES LESS THAN (81900), PARTITION p81900 VALUES LESS THAN (81910), "
+                + "PARTITION pmax VALUES LESS THAN MAXVALUE)"), ddl);
+
+        manager.ensureCapacity(81900);
+        assertEquals(1, ddl.size(), "no partitions past the limit");
+    }
+}
@@ -0,0 +1,128 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.service.HoldingSnapshotStore;
+
+class HoldingSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private long currentVersion = 1;
+
+    /**
+     * JdbcTemplate stand-in whose only portfolio (id 7) is at {@code currentVersion}.
+     */
+    private JdbcTemplate database() {
+        return mock(JdbcTemplate.class, invocation -> {
+            if ("queryForList".equals(invocation.getMethod().getName())) {
+                return List.of(currentVersion);
+            }
+            return null;
+        });
+    }
+
+    private HoldingSnapshotStore store() {
+        return new HoldingSnapshotStore(database(), true, dir.toString(), 16);
+    }
+
+    @Test
+    void testRoundTripAfterRestart() {
+        store().save(7L, 1, Arrays.asList(
+                holding(1L, "AAPL", 15.0, 3, 1, 85.0),
+                holding(2L, "XOM", 8.0, 5, 1, null),
+                holding(3L, "AAPL", 2.5, null, null, 70.0)));
+
+        List<Holding> read = store().read(7L);
+
+        assertEquals(3, read.size());
+        assertEquals(1L, read.get(0).getId());
+        assertEquals("AAPL", read.get(0).getTicker());
+        assertEquals(15.0, read.get(0).getWeight());
+        assertEquals(3, read.get(0).getSectorId());
+        assertEquals(85.0, read.get(0).getEsgScore());
+        assertNull(read.get(1).getEsgScore());
+        assertEquals("AAPL", read.get(2).getTicker());
+        assertNull(read.get(2).getSectorId());
+        assertNull(read.get(2).getRegionId());
+        assertEquals(7L, read.get(2).getPortfolio().getId());
+    }
+
+    @Test
+    void testStaleSnapshotIsDiscarded() {
+        store().save(7L, 1, List.of(holding(1L, "AAPL", 100.0, 3, 1, 85.0)));
+        currentVersion = 2;
+
+        assertNull(store().read(7L));
+        assertFalse(Files.exists(dir.resolve("portfolio-7.snap")));
+    }
+
+    @Test
+    void testSnapshotOfEarlierPortfolioWithSameIdIsDiscarded() {
+        currentVersion = 0x5eed_0001L;
+        store().save(7L, currentVersion, List.of(holding(1L, "AAPL", 100.0, 3, 1, 85.0)));
+        // The DB was reset and id 7 now belongs to a different upload with its own token
+        currentVersion = -0x7a11_0002L;
+
+        assertNull(store().read(7L));
+        assertFalse(Files.exists(dir.resolve("portfolio-7.snap")));
+    }
+
+    @Test
+    void testMappedSnapshotIsDroppedOnceVersionChanges() {
+        HoldingSnapshotStore store = store();
+        store.save(7L, 1, List.of(holding(1L, "AAPL", 100.0, 3, 1, 85.0)));
+        assertEquals(1, store.read(7L).size());
+
+        // Another instance rewrote the holdings
+        currentVersion = 2;
+
+        assertNull(store.read(7L));
+        assertFalse(Files.exists(dir.resolve("portfolio-7.snap")));
+    }
+
+    @Test
+    void testDisabledWithoutDirectory() {
+        HoldingSnapshotStore store = new HoldingSnapshotStore(database(), true, "", 16);
+        store.save(7L, 1, List.of(holding(1L, "AAPL", 100.0, 3, 1, 85.0)));
+
+        assertNull(store.read(7L));
+    }
+
+    @Test
+    void testCorruptSnapshotIsDiscarded() throws Exception {
+        store().save(7L, 1, List.of(holding(1L, "AAPL", 100.0, 3, 1, 85.0)));
+        Path file = dir.resolve("portfolio-7.snap");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertNull(store().read(7L));
+        assertFalse(Files.exists(file));
+    }
+
+    private static Holding holding(Long id, String ticker, Double weight, Integer sector, Integer region,
+            Double esg) {
+        Holding h = new Holding();
+        h.setId(id);
+        h.setTicker(ticker);
+        h.setWeight(weight);
+        h.setSectorId(sector);
+        h.setRegionId(region);
+        h.setEsgScore(esg);
+        return h;
+    }
+}
@@ -0,0 +1,107 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import db.migration.V1_1__Backfill_holding_dimensions;
+import db.migration.V1_2__Upgrade_legacy_schema;
+
+class LegacySchemaMigrationTest {
+
+    private final Set<String> columns = new HashSet<>();   // "table.column"
+    private final Set<String> indexes = new HashSet<>();   // "table.column", unique or not
+    private final Set<String> foreignKeys = new HashSet<>(); // "table.column"
+    private final List<String> ddl = new ArrayList<>();
+    private final List<Object[]> updates = new ArrayList<>();
+
+    /**
+     * JdbcTemplate stand-in answering information_schema checks from the sets
+     * above; holding ids go up to 120000 and every executed statement is recorded.
+     */
+    private JdbcTemplate database() {
+        return mock(JdbcTemplate.class, invocation -> {
+            Object[] args = invocation.getArguments();
+            String sql = (String) args[0];
+            switch (invocation.getMethod().getName()) {
+                case "queryForObject":
+                    if (sql.contains("MAX(id)")) {
+                        return 120_000L;
+                    }
+                    if (sql.contains("information_schema.COLUMNS")) {
+                        return columns.contains(args[2] + "." + args[3]) ? 1L : 0L;
+                    }
+                    if (sql.contains("information_schema.STATISTICS")) {
+                        return indexes.contains(args[2] + "." + args[3]) ? 1L : 0L;
+                    }
+                    if (sql.contains("KEY_COLUMN_USAGE")) {
+                        return foreignKeys.contains(args[2] + "." + args[3]) ? 1L : 0L;
+                    }
+                    return 0L; // no unmapped holdings
+                case "update":
+                    updates.add(args);
+                    return 1;
+                case "execute":
+                    ddl.add(sql);
+                    return null;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    @Test
+    void testBackfillsHibernateCreatedHoldings() {
+        columns.addAll(List.of("holding.sector", "holding.region"));
+
+        new V1_1__Backfill_holding_dimensions().migrate(database());
+
+        assertEquals(List.of(
+                "ALTER TABLE holding ADD COLUMN sector_id INT",
+                "ALTER TABLE holding DROP COLUMN sector",
+                "ALTER TABLE holding ADD CONSTRAINT fk_holding_sector FOREIGN KEY (sector_id) REFERENCES sector (id)",
+                "ALTER TABLE holding ADD COLUMN region_id INT",
+                "ALTER TABLE holding DROP COLUMN region",
+                "ALTER TABLE holding ADD CONSTRAINT fk_holding_region FOREIGN KEY (region_id) REFERENCES region (id)"),
+                ddl);
+        // One INSERT of new names, then UPDATEs over ids [0, 50000), [50000, 100000), [100000, 150000)
+        assertEquals(8, updates.size());
+        assertTrue(((String) updates.get(0)[0]).startsWith("INSERT INTO sector"));
+        assertEquals(100_000L, updates.get(3)[1]);
+    }
+
+    @Test
+    void testSchemaFromV1IsLeftAlone() {
+        columns.addAll(List.of("holding.sector_id", "holding.region_id", "portfolio.content_hash"));
+        foreignKeys.addAll(List.of("holding.sector_id", "holding.region_id", "holding.portfolio_id"));
+        indexes.addAll(List.of("portfolio.content_hash", "ingestion_report.portfolio_id",
+                "metric_series_chunk.series_key"));
+
+        new V1_1__Backfill_holding_dimensions().migrate(database());
+        new V1_2__Upgrade_legacy_schema().migrate(database());
+
+        assertTrue(ddl.isEmpty());
+        assertTrue(updates.isEmpty());
+    }
+
+    @Test
+    void testAddsContentHashAndConstraintsToOriginalSchema() {
+        new V1_2__Upgrade_legacy_schema().migrate(database());
+
+        assertEquals(List.of(
+                "ALTER TABLE portfolio ADD COLUMN content_hash VARCHAR(64)",
+                "CREATE UNIQUE INDEX ux_portfolio_content_hash ON portfolio (content_hash)",
+                "ALTER TABLE holding ADD CONSTRAINT fk_holding_portfolio FOREIGN KEY (portfolio_id) REFERENCES portfolio (id)",
+                "CREATE INDEX ix_ingestion_report_portfolio ON ingestion_report (portfolio_id)",
+                "CREATE UNIQUE INDEX ux_metric_series_chunk ON metric_series_chunk (series_key, metric, period)"),
+                ddl);
+    }
+}
@@ -0,0 +1,154 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.esg.risk.backend.dto.MetricHistory;
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.model.MetricSeriesChunk;
+import com.esg.risk.backend.model.Portfolio;
+import com.esg.risk.backend.repository.MetricSeriesChunkRepository;
+import com.esg.risk.backend.service.BreakdownService;
+import com.esg.risk.backend.service.DimensionService;
+import com.esg.risk.backend.service.ESGService;
+import com.esg.risk.backend.service.MetricHistoryService;
+import com.esg.risk.backend.service.MetricSeriesCodec;
+
+class MetricHistoryServiceTest {
+
+    private final DimensionService dimensions = TestDimensions.create();
+    private final List<MetricSeriesChunk> stored = new ArrayList<>();
+    private final MetricHistoryService history = new MetricHistoryService(
+            repository(), new ESGService(), new BreakdownService(dimensions));
+
+    @Test
+    void testCodecRoundTrip() {
+        int first = (int) LocalDate.of(2024, 1, 1).toEpochDay();
+        int[] days = new int[366];
+        long[] values = new long[366];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = first + i;
+            values[i] = MetricSeriesCodec.toFixed(50 + Math.sin(i / 10.0) * 5);
+        }
+        byte[] data = MetricSeriesCodec.encode(first, days, values, days.length);
+        MetricSeriesCodec.Points points = MetricSeriesCodec.decode(data, first, days.length);
+
+        assertEquals(new MetricSeriesCodec.Points(days, values), points);
+        // Day deltas of 1 and small value moves take a few bytes per point
+        assertTrue(data.length < days.length * 4, "encoded size " + data.length);
+    }
+
+    @Test
+    void testRecordAndDownsample() {
+        LocalDate monday = LocalDate.of(2024, 3, 4);
+        for (int i = 0; i < 14; i++) {
+            history.record("fund_a", monday.plusDays(i), List.of(holding("Tech", 100, 40.0 + i)));
+        }
+
+        MetricHistory daily = history.history("fund_a", MetricHistoryService.ESG,
+                monday, monday.plusDays(13), "daily");
+        assertEquals("fund_a", daily.getSeries());
+        assertEquals(14, daily.getPoints().size());
+        assertEquals(53.0, daily.getPoints().get(13).getValue(), 1e-9);
+
+        MetricHistory weekly = history.history("fund_a", MetricHistoryService.ESG,
+                monday, monday.plusDays(13), "weekly");
+        assertEquals(2, weekly.getPoints().size());
+        assertEquals(monday, weekly.getPoints().get(0).getDate());
+        assertEquals(43.0, weekly.getPoints().get(0).getValue(), 1e-9);
+        assertEquals(50.0, weekly.getPoints().get(1).getValue(), 1e-9);
+    }
+
+    @Test
+    void testSameDayReplacesAndDroppedSectorGoesToZero() {
+        LocalDate day = LocalDate.of(2024, 6, 3);
+        history.record("fund_b", day, List.of(holding("Tech", 50, 60.0), holding("Energy", 50, 40.0)));
+        history.record("fund_b", day, List.of(holding("Tech", 100, 70.0)));
+        history.record("fund_b", day.plusDays(1), List.of(holding("Tech", 100, 70.0)));
+
+        MetricHistory esg = history.history("fund_b", MetricHistoryService.ESG, day, day.plusDays(1), "daily");
+        assertEquals(List.of(70.0, 70.0), values(esg));
+
+        String energy = MetricHistoryService.sectorMetric(dimensions.findSectorId("Energy"));
+        MetricHistory exposure = history.history("fund_b", energy, day, day.plusDays(1), "daily");
+        assertEquals(List.of(0.0, 0.0), values(exposure));
+    }
+
+    @Test
+    void testPortfoliosWithTheSameFileNameKeepSeparateSeries() {
+        Portfolio first = portfolio(1L, "holdings.xlsx", null);
+        Portfolio second = portfolio(2L, "holdings.xlsx", null);
+        Portfolio named = portfolio(3L, "fund_c_2024-06-04.csv", MetricHistoryService.seriesKey(" Fund C "));
+        LocalDate day = LocalDate.of(2024, 6, 3);
+        history.record(MetricHistoryService.seriesKey(first), day, List.of(holding("Tech", 100, 80.0)));
+        history.record(MetricHistoryService.seriesKey(second), day, List.of(holding("Tech", 100, 20.0)));
+        history.record(MetricHistoryService.seriesKey(named), day, List.of(holding("Tech", 100, 50.0)));
+
+        MetricHistory firstHistory = history.history(MetricHistoryService.seriesKey(first),
+                MetricHistoryService.ESG, day, day, "daily");
+        assertEquals("portfolio-1", firstHistory.getSeries());
+        assertEquals(List.of(80.0), values(firstHistory));
+        assertEquals(List.of(20.0), values(history.history("portfolio-2", MetricHistoryService.ESG, day, day, "daily")));
+        assertEquals(List.of(50.0), values(history.history("fund c", MetricHistoryService.ESG, day, day, "daily")));
+        assertNull(MetricHistoryService.seriesKey("  "));
+    }
+
+    private static Portfolio portfolio(Long id, String name, String seriesKey) {
+        Portfolio p = new Portfolio();
+        p.setId(id);
+        p.setName(name);
+        p.setSeriesKey(seriesKey);
+        return p;
+    }
+
+    private static List<Double> values(MetricHistory history) {
+        return history.getPoints().stream().map(p -> p.getValue()).collect(Collectors.toList());
+    }
+
+    private MetricSeriesChunkRepository repository() {
+        MetricSeriesChunkRepository repo = mock(MetricSeriesChunkRepository.class);
+        when(repo.findBySeriesKeyAndPeriod(anyString(), anyInt())).thenAnswer(inv -> stored.stream()
+                .filter(c -> c.getSeriesKey().equals(inv.getArgument(0)) && c.getPeriod() == inv.<Integer>getArgument(1))
+                .collect(Collectors.toList()));
+        when(repo.findBySeriesKeyAndMetricAndPeriodBetweenOrderByPeriod(anyString(), anyString(), anyInt(), anyInt()))
+                .thenAnswer(inv -> stored.stream()
+                        .filter(c -> c.getSeriesKey().equals(inv.getArgument(0))
+                                && c.getMetric().equals(inv.getArgument(1))
+                                && c.getPeriod() >= inv.<Integer>getArgument(2)
+                                && c.getPeriod() <= inv.<Integer>getArgument(3))
+                        .sorted(Comparator.comparingInt(MetricSeriesChunk::getPeriod))
+                        .collect(Collectors.toList()));
+        when(repo.saveAll(anyIterable())).thenAnswer(inv -> {
+            Iterable<MetricSeriesChunk> chunks = inv.getArgument(0);
+            for (MetricSeriesChunk chunk : chunks) {
+                if (!stored.contains(chunk)) {
+                    stored.add(chunk);
+                }
+            }
+            return chunks;
+        });
+        return repo;
+    }
+
+    private Holding holding(String sector, double weight, double esg) {
+        Holding h = new Holding();
+        h.setSectorId(dimensions.sectorId(sector));
+        h.setWeight(weight);
+        h.setEsgScore(esg);
+        return h;
+    }
+}
@@ -0,0 +1,119 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.esg.risk.backend.model.Portfolio;
+import com.esg.risk.backend.model.Report;
+import com.esg.risk.backend.repository.IngestionReportRepository;
+import com.esg.risk.backend.repository.PortfolioRepository;
+import com.esg.risk.backend.repository.ReportRepository;
+import com.esg.risk.backend.service.HoldingPartitionManager;
+import com.esg.risk.backend.service.HoldingSnapshotStore;
+import com.esg.risk.backend.service.MinioService;
+import com.esg.risk.backend.service.PortfolioDeletionService;
+import com.esg.risk.backend.service.PortfolioMetricsIndex;
+
+class PortfolioDeletionServiceTest {
+
+    private final List<String> updates = new ArrayList<>();
+
+    private final PortfolioRepository portfolioRepo = mock(PortfolioRepository.class);
+    private final ReportRepository reportRepo = mock(ReportRepository.class);
+    private final HoldingPartitionManager partitionManager = mock(HoldingPartitionManager.class);
+    private final MinioService minio = mock(MinioService.class);
+
+    private final PortfolioDeletionService service = new PortfolioDeletionService(
+            portfolioRepo,
+            reportRepo,
+            mock(IngestionReportRepository.class),
+            partitionManager,
+            mock(PortfolioMetricsIndex.class),
+            mock(HoldingSnapshotStore.class),
+            minio,
+            jdbcTemplate(),
+            mock(PlatformTransactionManager.class),
+            1000);
+
+    /**
+     * Records every update; the holding table is already empty.
+     */
+    private JdbcTemplate jdbcTemplate() {
+        return mock(JdbcTemplate.class, invocation -> {
+            if ("update".equals(invocation.getMethod().getName())) {
+                updates.add(invocation.getArgument(0) + " " + invocation.getArgument(1));
+                return 0;
+            }
+            return null;
+        });
+    }
+
+    @Test
+    void testRemovesStoredObjectsAndOwnHistory() throws Exception {
+        when(portfolioRepo.findById(3L)).thenReturn(Optional.of(portfolio(3L, null)));
+        when(reportRepo.findByPortfolioId(3L)).thenReturn(List.of(report("reports/3/a.xlsx"), report(null)));
+        when(minio.removeFiles(List.of("portfolio/abc.csv", "reports/3/a.xlsx"))).thenReturn(List.of());
+
+        assertTrue(service.delete(3L));
+
+        verify(minio).removeFiles(List.of("portfolio/abc.csv", "reports/3/a.xlsx"));
+        assertTrue(updates.contains("UPDATE report_batch_item SET report_id = NULL "
+                + "WHERE portfolio_id = ? AND report_id IS NOT NULL 3"));
+        assertTrue(updates.contains("DELETE FROM metric_series_chunk WHERE series_key = ? portfolio-3"));
+        verify(reportRepo).deleteByPortfolioId(3L);
+        verify(portfolioRepo).deleteById(3L);
+    }
+
+    @Test
+    void testNamedSeriesHistoryIsKept() throws Exception {
+        when(portfolioRepo.findById(3L)).thenReturn(Optional.of(portfolio(3L, "fund a")));
+        when(minio.removeFiles(List.of("portfolio/abc.csv"))).thenReturn(List.of());
+
+        assertTrue(service.delete(3L));
+
+        assertEquals(0, updates.stream().filter(sql -> sql.contains("metric_series_chunk")).count());
+        verify(portfolioRepo).deleteById(3L);
+    }
+
+    @Test
+    void testObjectsThatCannotBeRemovedKeepThePortfolio() throws Exception {
+        when(portfolioRepo.findById(3L)).thenReturn(Optional.of(portfolio(3L, null)));
+        when(reportRepo.findByPortfolioId(3L)).thenReturn(List.of(report("reports/3/a.xlsx")));
+        when(minio.removeFiles(List.of("portfolio/abc.csv", "reports/3/a.xlsx")))
+                .thenReturn(List.of("reports/3/a.xlsx"));
+
+        assertThrows(RuntimeException.class, () -> service.delete(3L));
+
+        verify(partitionManager, never()).dropPortfolio(anyLong());
+        verify(reportRepo, never()).deleteByPortfolioId(3L);
+        verify(portfolioRepo, never()).deleteById(3L);
+    }
+
+    private static Portfolio portfolio(Long id, String seriesKey) {
+        Portfolio p = new Portfolio();
+        p.setId(id);
+        p.setS3Path("portfolio/abc.csv");
+        p.setSeriesKey(seriesKey);
+        return p;
+    }
+
+    private static Report report(String s3Path) {
+        Report report = new Report();
+        report.setS3Path(s3Path);
+        return report;
+    }
+}
@@ -0,0 +1,186 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.esg.risk.backend.dto.IngestionResult;
+import com.esg.risk.backend.model.Portfolio;
+import com.esg.risk.backend.repository.HoldingRepository;
+import com.esg.risk.backend.repository.IngestionReportRepository;
+import com.esg.risk.backend.repository.PortfolioRepository;
+import com.esg.risk.backend.service.HoldingLoader;
+import com.esg.risk.backend.service.HoldingPartitionManager;
+import com.esg.risk.backend.service.HoldingSnapshotStore;
+import com.esg.risk.backend.service.MetricHistoryService;
+import com.esg.risk.backend.service.MinioService;
+import com.esg.risk.backend.service.PortfolioIngestionService;
+import com.esg.risk.backend.service.PortfolioMetricsIndex;
+import com.esg.risk.backend.service.TickerReferenceService;
+import com.esg.risk.backend.service.reader.CsvPortfolioReader;
+import com.esg.risk.backend.service.reader.PortfolioReaders;
+
+class PortfolioIngestionServiceTest {
+
+    private static final byte[] CSV = "ticker,weight,sector,region,esgScore\nAAPL,0.6,Technology,US,80\nXOM,0.4,Energy,US,40\n"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final PortfolioRepository portfolioRepo = mock(PortfolioRepository.class);
+    private final HoldingRepository holdingRepo = mock(HoldingRepository.class);
+    private final PortfolioMetricsIndex metricsIndex = mock(PortfolioMetricsIndex.class);
+    private final HoldingLoader holdingLoader = mock(HoldingLoader.class);
+    private final MinioService minio = mock(MinioService.class);
+    private final MetricHistoryService metricHistory = mock(MetricHistoryService.class);
+    private final HoldingSnapshotStore snapshots = mock(HoldingSnapshotStore.class);
+
+    private final PortfolioIngestionService service = new PortfolioIngestionService(
+            portfolioRepo,
+            holdingRepo,
+            mock(IngestionReportRepository.class),
+            TestDimensions.create(),
+            metricsIndex,
+            metricHistory,
+            holdingLoader,
+            snapshots,
+            mock(HoldingPartitionManager.class),
+            mock(TickerReferenceService.class),
+            new PortfolioReaders(List.of(new CsvPortfolioReader())),
+            minio,
+            mock(PlatformTransactionManager.class));
+
+    @Test
+    void testNewContentIsStoredUnderItsHash() throws Exception {
+        when(portfolioRepo.findByContentHash(anyString())).thenReturn(Optional.empty());
+        when(portfolioRepo.save(any(Portfolio.class))).thenAnswer(inv -> {
+            Portfolio p = inv.getArgument(0);
+            p.setId(11L);
+            return p;
+        });
+
+        IngestionResult result = service.store("holdings.csv", "text/csv", CSV.length, new ByteArrayResource(CSV));
+
+        assertEquals(IngestionResult.OK, result.getStatus());
+        assertFalse(result.isDuplicate());
+        assertEquals(11L, result.getPortfolioId());
+        assertEquals(2, result.getHoldings());
+        assertEquals(sha256(CSV), result.getPortfolio().getContentHash());
+        verify(minio).uploadFile(eq("portfolio/" + sha256(CSV) + ".csv"), any(), eq((long) CSV.length), eq("text/csv"));
+        verify(metricHistory).record(eq("portfolio-11"), any(), anyList());
+    }
+
+    @Test
+    void testNamedSeriesIsKeptOnThePortfolioAndUsedForDuplicates() throws Exception {
+        when(portfolioRepo.findByContentHash(anyString())).thenReturn(Optional.empty());
+        when(portfolioRepo.save(any(Portfolio.class))).thenAnswer(inv -> {
+            Portfolio p = inv.getArgument(0);
+            p.setId(12L);
+            return p;
+        });
+
+        IngestionResult result = service.store("fund_a_2024-06-03.csv", "text/csv", CSV.length, " Fund A ",
+                new ByteArrayResource(CSV));
+        assertEquals("fund a", result.getPortfolio().getSeriesKey());
+        verify(metricHistory).record(eq("fund a"), any(), anyList());
+
+        // The same content uploaded the next day into another series still extends that series
+        when(portfolioRepo.findByContentHash(anyString())).thenReturn(Optional.of(result.getPortfolio()));
+        when(holdingLoader.load(12L)).thenReturn(List.of());
+        service.store("fund_b.csv", "text/csv", CSV.length, "fund b", new ByteArrayResource(CSV));
+        verify(metricHistory).record(eq("fund b"), any(), anyList());
+    }
+
+    @Test
+    void testEveryIngestWritesItsOwnDataVersion() throws Exception {
+        byte[] other = "AAPL,1.0,Technology,US,80\n".getBytes(StandardCharsets.UTF_8);
+        List<Portfolio> saved = new ArrayList<>();
+        when(portfolioRepo.findByContentHash(anyString())).thenReturn(Optional.empty());
+        when(portfolioRepo.save(any(Portfolio.class))).thenAnswer(inv -> {
+            Portfolio p = inv.getArgument(0);
+            // Same id twice, as after a DB reset
+            p.setId(5L);
+            saved.add(p);
+            return p;
+        });
+
+        service.store("a.csv", "text/csv", CSV.length, new ByteArrayResource(CSV));
+        service.store("b.csv", "text/csv", other.length, new ByteArrayResource(other));
+
+        long first = saved.get(0).getDataVersion();
+        long second = saved.get(1).getDataVersion();
+        assertNotEquals(first, second);
+        assertNotEquals(1L, first);
+        assertNotEquals(1L, second);
+        verify(snapshots).save(eq(5L), eq(first), anyList());
+        verify(snapshots).save(eq(5L), eq(second), anyList());
+    }
+
+    @Test
+    void testKnownContentResolvesToExistingPortfolio() throws Exception {
+        Portfolio existing = portfolio(7L);
+        when(portfolioRepo.findByContentHash(sha256(CSV))).thenReturn(Optional.of(existing));
+        when(holdingLoader.load(7L)).thenReturn(List.of());
+
+        IngestionResult result = service.store("copy.csv", "text/csv", CSV.length, new ByteArrayResource(CSV));
+
+        assertTrue(result.isDuplicate());
+        assertEquals(7L, result.getPortfolioId());
+        verify(minio, never()).uploadFile(anyString(), any(), anyLong(), anyString());
+        verify(portfolioRepo, never()).save(any(Portfolio.class));
+        verify(holdingRepo, never()).saveAll(any());
+        verify(metricHistory).record(eq("portfolio-7"), any(), anyList());
+    }
+
+    @Test
+    void testConcurrentIdenticalUploadResolvesToWinner() throws Exception {
+        Portfolio winner = portfolio(9L);
+        // Not there at the duplicate check, committed by another upload by the time we insert
+        when(portfolioRepo.findByContentHash(sha256(CSV))).thenReturn(Optional.empty(), Optional.of(winner));
+        when(portfolioRepo.save(any(Portfolio.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'ux_portfolio_content_hash'"));
+        when(holdingLoader.load(9L)).thenReturn(List.of());
+
+        IngestionResult result = service.store("holdings.csv", "text/csv", CSV.length, new ByteArrayResource(CSV));
+
+        assertEquals(IngestionResult.OK, result.getStatus());
+        assertTrue(result.isDuplicate());
+        assertEquals(9L, result.getPortfolioId());
+        verify(metricsIndex, never()).update(any(), any());
+    }
+
+    private static Portfolio portfolio(long id) {
+        Portfolio p = new Portfolio();
+        p.setId(id);
+        p.setContentHash(sha256(CSV));
+        return p;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.esg.risk.backend.dto.PageResult;
+import com.esg.risk.backend.dto.PortfolioRanking;
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.model.Portfolio;
+import com.esg.risk.backend.service.BreakdownService;
+import com.esg.risk.backend.service.DimensionService;
+import com.esg.risk.backend.service.ESGService;
+import com.esg.risk.backend.service.PortfolioMetricsIndex;
+
+class PortfolioMetricsIndexTest {
+
+    private final DimensionService dimensions = TestDimensions.create();
+    private final PortfolioMetricsIndex index = new PortfolioMetricsIndex(
+            mock(JdbcTemplate.class), new ESGService(), new BreakdownService(dimensions));
+
+    @Test
+    void testRankByEsg() {
+        index.update(portfolio(1L), List.of(holding("Tech", 50, 60.0), holding("Energy", 50, 40.0)));
+        index.update(portfolio(2L), List.of(holding("Tech", 100, 80.0)));
+        index.update(portfolio(3L), List.of(holding("Energy", 100, 30.0)));
+
+        PageResult<PortfolioRanking> top = index.rankByEsg(false, 0, 2);
+        assertEquals(3, top.getTotalElements());
+        assertEquals(2L, top.getContent().get(0).getPortfolioId());
+        assertEquals(1L, top.getContent().get(1).getPortfolioId());
+
+        PageResult<PortfolioRanking> bottom = index.rankByEsg(true, 0, 1);
+        assertEquals(3L, bottom.getContent().get(0).getPortfolioId());
+    }
+
+    @Test
+    void testUpdateReplacesPreviousEntry() {
+        index.update(portfolio(1L), List.of(holding("Tech", 100, 20.0)));
+        index.update(portfolio(2L), List.of(holding("Tech", 100, 50.0)));
+        index.update(portfolio(1L), List.of(holding("Tech", 100, 90.0)));
+
+        PageResult<PortfolioRanking> top = index.rankByEsg(false, 0, 10);
+        assertEquals(2, top.getContent().size());
+        assertEquals(1L, top.getContent().get(0).getPortfolioId());
+        assertEquals(90.0, top.getContent().get(0).getEsgScore(), 0.01);
+    }
+
+    @Test
+    void testSectorExposureFilter() {
+        index.update(portfolio(1L), List.of(holding("Tech", 70, 60.0), holding("Energy", 30, 40.0)));
+        index.update(portfolio(2L), List.of(holding("Tech", 95, 80.0), holding("Energy", 5, 40.0)));
+        index.update(portfolio(3L), Arrays.asList(holding("Energy", 60, 30.0), holding("Tech", 40, 30.0)));
+
+        PageResult<PortfolioRanking> result =
+                index.withSectorExposureAbove(dimensions.findSectorId("energy"), 10, 0, 10);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(3L, result.getContent().get(0).getPortfolioId());
+        assertEquals(60.0, result.getContent().get(0).getSectorExposure(), 0.01);
+        assertEquals(1L, result.getContent().get(1).getPortfolioId());
+    }
+
+    @Test
+    void testRebuildKeepsUpdatesMadeDuringScan() throws Exception {
+        PortfolioMetricsIndex[] holder = new PortfolioMetricsIndex[1];
+        Integer tech = dimensions.sectorId("Tech");
+        ResultSet other = row(2L, tech, 100, 5000);
+        ResultSet stale = row(1L, tech, 100, 1000);
+        JdbcTemplate jdbc = mock(JdbcTemplate.class, invocation -> {
+            if ("query".equals(invocation.getMethod().getName())) {
+                RowCallbackHandler handler = invocation.getArgument(1);
+                handler.processRow(other);
+                // Portfolio 1 is re-uploaded while the scan still returns its old rows
+                holder[0].update(portfolio(1L), List.of(holding("Tech", 100, 90.0)));
+                handler.processRow(stale);
+            }
+            return null;
+        });
+        holder[0] = new PortfolioMetricsIndex(jdbc, new ESGService(), new BreakdownService(dimensions));
+
+        holder[0].rebuild();
+
+        PageResult<PortfolioRanking> top = holder[0].rankByEsg(false, 0, 10);
+        assertEquals(2, top.getTotalElements());
+        assertEquals(1L, top.getContent().get(0).getPortfolioId());
+        assertEquals(90.0, top.getContent().get(0).getEsgScore(), 0.01);
+        assertEquals(50.0, top.getContent().get(1).getEsgScore(), 0.01);
+    }
+
+    private static ResultSet row(long portfolioId, int sectorId, double weight, double weightedEsg)
+            throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(portfolioId);
+        when(rs.getString(2)).thenReturn("portfolio-" + portfolioId);
+        when(rs.getInt(3)).thenReturn(sectorId);
+        when(rs.getDouble(4)).thenReturn(weight);
+        when(rs.getDouble(5)).thenReturn(weightedEsg);
+        return rs;
+    }
+
+    private static Portfolio portfolio(Long id) {
+        Portfolio p = new Portfolio();
+        p.setId(id);
+        p.setName("portfolio-" + id);
+        return p;
+    }
+
+    private Holding holding(String sector, double weight, double esg) {
+        Holding h = new Holding();
+        h.setSectorId(dimensions.sectorId(sector));
+        h.setWeight(weight);
+        h.setEsgScore(esg);
+        return h;
+    }
+}
@@ -0,0 +1,140 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.esg.risk.backend.service.reader.ColumnarPortfolioFormat;
+import com.esg.risk.backend.service.reader.ColumnarPortfolioReader;
+import com.esg.risk.backend.service.reader.CsvPortfolioReader;
+import com.esg.risk.backend.service.reader.ExcelPortfolioReader;
+import com.esg.risk.backend.service.reader.PortfolioReader;
+import com.esg.risk.backend.service.reader.PortfolioRow;
+import com.esg.risk.backend.service.reader.PortfolioRowSink;
+import com.esg.risk.backend.service.reader.RejectReason;
+
+/**
+ * Parses the same generated portfolio in every format and prints throughput.
+ * Only runs with -Dbenchmark=true; row counts can be changed with
+ * -Dbenchmark.rows=... (Excel uses a tenth).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PortfolioReaderBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final String[] SECTORS = {"Technology", "Energy", "Utilities", "Renewables", "Financials"};
+    private static final String[] REGIONS = {"US", "EU", "APAC"};
+
+    @Test
+    void benchmarkExcel() throws Exception {
+        int rows = Math.max(1, ROWS / 10);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(1000)) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Ticker");
+            header.createCell(1).setCellValue("Weight");
+            header.createCell(2).setCellValue("Sector");
+            header.createCell(3).setCellValue("Region");
+            header.createCell(4).setCellValue("ESG Score");
+            for (int i = 0; i < rows; i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue(ticker(i));
+                row.createCell(1).setCellValue(weight(rows));
+                row.createCell(2).setCellValue(SECTORS[i % SECTORS.length]);
+                row.createCell(3).setCellValue(REGIONS[i % REGIONS.length]);
+                row.createCell(4).setCellValue(esg(i));
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+        run(new ExcelPortfolioReader(), out.toByteArray(), rows);
+    }
+
+    @Test
+    void benchmarkCsv() throws Exception {
+        StringBuilder csv = new StringBuilder("ticker,weight,sector,region,esgScore\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append(ticker(i)).append(',')
+                    .append(weight(ROWS)).append(',')
+                    .append(SECTORS[i % SECTORS.length]).append(',')
+                    .append(REGIONS[i % REGIONS.length]).append(',')
+                    .append(esg(i)).append('\n');
+        }
+        run(new CsvPortfolioReader(), csv.toString().getBytes(StandardCharsets.UTF_8), ROWS);
+    }
+
+    @Test
+    void benchmarkColumnar() throws Exception {
+        String[] tickers = new String[ROWS];
+        double[] weights = new double[ROWS];
+        String[] sectors = new String[ROWS];
+        String[] regions = new String[ROWS];
+        double[] esgScores = new double[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            tickers[i] = ticker(i);
+            weights[i] = weight(ROWS);
+            sectors[i] = SECTORS[i % SECTORS.length];
+            regions[i] = REGIONS[i % REGIONS.length];
+            esgScores[i] = esg(i);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColumnarPortfolioFormat.write(out, tickers, weights, sectors, regions, esgScores);
+        run(new ColumnarPortfolioReader(), out.toByteArray(), ROWS);
+    }
+
+    private static void run(PortfolioReader reader, byte[] data, int expectedRows) throws Exception {
+        CountingSink sink = new CountingSink();
+        long start = System.nanoTime();
+        reader.read(new ByteArrayInputStream(data), sink);
+        long nanos = System.nanoTime() - start;
+
+        System.out.printf("%-8s %,9d rows  %,10d bytes  %7.1f ms  %,12.0f rows/s%n",
+                reader.format(), sink.rows, data.length, nanos / 1e6, sink.rows / (nanos / 1e9));
+
+        assertEquals(expectedRows, sink.rows);
+        assertEquals(0, sink.rejected);
+        assertEquals(1.0, sink.totalWeight, 1e-6);
+        assertEquals(SECTORS[(expectedRows - 1) % SECTORS.length], sink.lastSector);
+    }
+
+    private static String ticker(int i) {
+        return "T" + i;
+    }
+
+    private static double weight(int rows) {
+        // Equal weights summing to 1.0
+        return 1.0 / rows;
+    }
+
+    private static double esg(int i) {
+        return 20 + (i % 800) / 10.0;
+    }
+
+    private static final class CountingSink implements PortfolioRowSink {
+        int rows;
+        int rejected;
+        double totalWeight;
+        String lastSector;
+
+        @Override
+        public void accept(PortfolioRow row) {
+            rows++;
+            totalWeight += row.getWeight();
+            lastSector = row.getSector();
+        }
+
+        @Override
+        public void reject(long rowNumber, RejectReason reason, String detail) {
+            rejected++;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.esg.risk.backend.service.reader.ColumnarPortfolioFormat;
+import com.esg.risk.backend.service.reader.ColumnarPortfolioReader;
+import com.esg.risk.backend.service.reader.CsvPortfolioReader;
+import com.esg.risk.backend.service.reader.PortfolioReader;
+import com.esg.risk.backend.service.reader.PortfolioRow;
+import com.esg.risk.backend.service.reader.PortfolioRowSink;
+import com.esg.risk.backend.service.reader.RejectReason;
+
+class PortfolioReaderTest {
+
+    @Test
+    void testCsvQuotedFields() throws Exception {
+        CollectingSink sink = readCsv("ticker,weight,sector,region,esgScore\n"
+                + "\"BRK, B\",0.25,\"Financials, Insurance\",US,70\n"
+                + "\"Say \"\"Hi\"\" Inc\",0.25,Media,\"EU\",\n"
+                + " \"AAPL\" , 0.5 ,Technology,US,85\n");
+
+        assertEquals(List.of("BRK, B", "Say \"Hi\" Inc", "AAPL"), sink.tickers);
+        assertEquals(List.of(0.25, 0.25, 0.5), sink.weights);
+        assertEquals("Financials, Insurance", sink.sectors.get(0));
+        assertEquals(List.of(), sink.rejects);
+    }
+
+    @Test
+    void testCsvCrlfLineEndings() throws Exception {
+        CollectingSink sink = readCsv("ticker,weight,sector\r\nAAPL,0.5,Technology\r\n\r\nXOM,0.5,Energy");
+
+        assertEquals(List.of("AAPL", "XOM"), sink.tickers);
+        assertEquals(List.of("Technology", "Energy"), sink.sectors);
+        assertEquals(List.of(), sink.rejects);
+    }
+
+    @Test
+    void testCsvHeaderOnlyDetectedOnFirstLine() throws Exception {
+        CollectingSink sink = readCsv("AAPL,0.6,Technology\n"
+                + "XOM,abc,Energy\n"
+                + "ticker,weight\n"
+                + ",0.1\n"
+                + "MSFT,\n");
+
+        // Without a header the first line is data; later non-numeric weights are rejects
+        assertEquals(List.of("AAPL"), sink.tickers);
+        assertEquals(List.of("2:INVALID_WEIGHT", "3:INVALID_WEIGHT", "4:MISSING_TICKER", "5:INVALID_WEIGHT"),
+                sink.rejects);
+    }
+
+    @Test
+    void testColumnarRejectsMissingTickerAndWeight() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColumnarPortfolioFormat.write(out,
+                new String[] {"AAPL", "  ", "XOM", " TSLA "},
+                new double[] {0.5, 0.2, Double.NaN, 0.3},
+                new String[] {"Technology", null, "Energy", null},
+                new String[] {"US", "US", null, "US"},
+                new double[] {80, 50, 40, Double.NaN});
+
+        CollectingSink sink = read(new ColumnarPortfolioReader(), out.toByteArray());
+
+        assertEquals(List.of("AAPL", "TSLA"), sink.tickers);
+        assertEquals(List.of("2:MISSING_TICKER", "3:INVALID_WEIGHT"), sink.rejects);
+    }
+
+    @Test
+    void testColumnarRejectsOversizedDictionary() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x45534743); // "ESGC"
+        out.writeShort(1);
+        out.writeInt(0);
+        out.writeInt(Integer.MAX_VALUE); // sector dictionary count with no entries behind it
+        out.flush();
+
+        IOException e = assertThrows(IOException.class,
+                () -> read(new ColumnarPortfolioReader(), bytes.toByteArray()));
+        assertTrue(e.getMessage().contains("Truncated"));
+    }
+
+    private static CollectingSink readCsv(String content) throws IOException {
+        return read(new CsvPortfolioReader(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CollectingSink read(PortfolioReader reader, byte[] data) throws IOException {
+        CollectingSink sink = new CollectingSink();
+        reader.read(new ByteArrayInputStream(data), sink);
+        return sink;
+    }
+
+    private static final class CollectingSink implements PortfolioRowSink {
+        final List<String> tickers = new ArrayList<>();
+        final List<Double> weights = new ArrayList<>();
+        final List<String> sectors = new ArrayList<>();
+        final List<String> rejects = new ArrayList<>();
+
+        @Override
+        public void accept(PortfolioRow row) {
+            tickers.add(row.getTicker());
+            weights.add(row.getWeight());
+            sectors.add(row.getSector());
+        }
+
+        @Override
+        public void reject(long rowNumber, RejectReason reason, String detail) {
+            rejects.add(rowNumber + ":" + reason);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.esg.risk.backend.service.RateLimiter;
+
+class RateLimiterTest {
+
+    @Test
+    void testBurstDoesNotWait() throws Exception {
+        RateLimiter limiter = new RateLimiter(1, 5);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+        assertTrue(System.nanoTime() - start < 500_000_000L);
+    }
+
+    @Test
+    void testPacesBeyondBurst() throws Exception {
+        RateLimiter limiter = new RateLimiter(20, 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+        // First permit is immediate, the other four refill at 50 ms each
+        assertTrue(System.nanoTime() - start >= 180_000_000L);
+    }
+
+    @Test
+    void testRejectsInvalidRate() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0, 1));
+    }
+}
@@ -0,0 +1,172 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.esg.risk.backend.dto.RebalanceRequest;
+import com.esg.risk.backend.dto.RebalanceResult;
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.service.DimensionService;
+import com.esg.risk.backend.service.RebalanceOptimizer;
+import com.esg.risk.backend.service.StressTestService;
+
+class RebalanceOptimizerTest {
+
+    private final DimensionService dimensions = TestDimensions.create();
+    private final RebalanceOptimizer optimizer =
+            new RebalanceOptimizer(new StressTestService(dimensions), dimensions, 2, 300, 1000, 3);
+
+    @AfterEach
+    void tearDown() {
+        optimizer.shutdown();
+    }
+
+    private List<Holding> portfolio() {
+        return List.of(
+                holding(1L, "AAA", "Tech", 40, 5.0),
+                holding(2L, "BBB", "Energy", 30, 3.0),
+                holding(3L, "CCC", "Health", 20, 8.0),
+                holding(4L, "DDD", "Tech", 10, 9.0));
+    }
+
+    @Test
+    void testReachesTargetWithinConstraints() throws Exception {
+        RebalanceRequest request = new RebalanceRequest();
+        request.setTargetEsg(6.5);
+        request.getSectorCaps().put("Tech", 50.0);
+        request.getMaxScenarioLoss().put("oil-shock", 10.0);
+
+        RebalanceResult result = optimizer.optimize(portfolio(), request);
+
+        assertTrue(result.isFeasible());
+        assertEquals(5.4, result.getEsgBefore(), 1e-9);
+        assertTrue(result.getEsgAfter() >= 6.5 - 1e-6);
+        assertTrue(result.getSectorExposure().get("Tech") <= 50.0 + 1e-6);
+        assertTrue(result.getScenarioLoss().get("oil-shock") <= 10.0 + 1e-6);
+        // Tech is capped, so the cheapest route is Energy -> Health: 22% of weight
+        assertEquals(22.0, result.getTurnover(), 0.5);
+        assertTrue(result.getCandidatesEvaluated() > 1000);
+    }
+
+    @Test
+    void testAlreadyFeasibleNeedsNoChange() throws Exception {
+        RebalanceRequest request = new RebalanceRequest();
+        request.setTargetEsg(5.0);
+
+        RebalanceResult result = optimizer.optimize(portfolio(), request);
+
+        assertTrue(result.isFeasible());
+        assertEquals(0.0, result.getTurnover(), 1e-9);
+        assertTrue(result.getChanges().isEmpty());
+    }
+
+    @Test
+    void testReportsInfeasibleWhenTurnoverTooLow() throws Exception {
+        RebalanceRequest request = new RebalanceRequest();
+        request.setTargetEsg(6.5);
+        request.setMaxTurnover(5.0);
+
+        RebalanceResult result = optimizer.optimize(portfolio(), request);
+
+        assertFalse(result.isFeasible());
+        assertTrue(result.getTurnover() <= 5.0 + 1e-6);
+    }
+
+    @Test
+    void testConcurrentRequestsEachGetTheirBudget() throws Exception {
+        RebalanceRequest request = new RebalanceRequest();
+        request.setTargetEsg(6.5);
+        request.getSectorCaps().put("Tech", 50.0);
+
+        // Three requests on two workers: the last tasks wait for a whole budget before starting
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<RebalanceResult>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(callers.submit(() -> optimizer.optimize(portfolio(), request)));
+            }
+            for (Future<RebalanceResult> result : results) {
+                assertTrue(result.get().isFeasible());
+                assertTrue(result.get().getCandidatesEvaluated() > 1000);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSearchStopsOnceConverged() throws Exception {
+        RebalanceRequest request = new RebalanceRequest();
+        request.setTargetEsg(6.5);
+        request.setTimeBudgetMillis(1000L);
+
+        RebalanceResult result = optimizer.optimize(portfolio(), request);
+
+        assertTrue(result.isFeasible());
+        assertTrue(result.getElapsedMillis() < 800, "elapsed " + result.getElapsedMillis());
+    }
+
+    @Test
+    void testRequestBeyondCapacityIsRejected() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StressTestService slowStress = new StressTestService(dimensions) {
+            @Override
+            public List<String> scenarioNames() {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.scenarioNames();
+            }
+        };
+        RebalanceOptimizer single = new RebalanceOptimizer(slowStress, dimensions, 2, 50, 1000, 1);
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        try {
+            Future<RebalanceResult> first = callers.submit(() -> single.optimize(portfolio(), new RebalanceRequest()));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            assertThrows(RejectedExecutionException.class, () -> single.optimize(portfolio(), new RebalanceRequest()));
+
+            release.countDown();
+            assertTrue(first.get(5, TimeUnit.SECONDS).isFeasible());
+        } finally {
+            callers.shutdownNow();
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void testUnknownScenarioIsRejected() {
+        RebalanceRequest request = new RebalanceRequest();
+        request.getMaxScenarioLoss().put("alien-invasion", 10.0);
+
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize(portfolio(), request));
+    }
+
+    private Holding holding(Long id, String ticker, String sector, double weight, double esg) {
+        Holding h = new Holding();
+        h.setId(id);
+        h.setTicker(ticker);
+        h.setSectorId(dimensions.sectorId(sector));
+        h.setWeight(weight);
+        h.setEsgScore(esg);
+        return h;
+    }
+}
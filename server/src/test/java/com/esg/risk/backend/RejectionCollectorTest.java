@@ -0,0 +1,60 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.esg.risk.backend.dto.Rejection;
+import com.esg.risk.backend.service.RejectionCollector;
+import com.esg.risk.backend.service.reader.RejectReason;
+
+class RejectionCollectorTest {
+
+    @Test
+    void testEmptyCollector() {
+        RejectionCollector collector = new RejectionCollector(10);
+        assertEquals(0, collector.rejected());
+        assertEquals("", collector.reasonCounts());
+        assertNull(collector.finish());
+        assertTrue(RejectionCollector.decode(null, 10).isEmpty());
+    }
+
+    @Test
+    void testRoundTrip() {
+        RejectionCollector collector = new RejectionCollector(10);
+        collector.add(3, RejectReason.INVALID_WEIGHT, "weight: abc");
+        collector.add(7, RejectReason.MISSING_TICKER, null);
+        collector.add(9, RejectReason.INVALID_WEIGHT, "tab\there");
+
+        List<Rejection> rejections = RejectionCollector.decode(collector.finish(), 100);
+        assertEquals(3, rejections.size());
+        assertEquals(3, rejections.get(0).getRow());
+        assertEquals("INVALID_WEIGHT", rejections.get(0).getReason());
+        assertEquals("weight: abc", rejections.get(0).getDetail());
+        assertNull(rejections.get(1).getDetail());
+        assertEquals("tab here", rejections.get(2).getDetail());
+
+        Map<String, Long> counts = RejectionCollector.decodeCounts(collector.reasonCounts());
+        assertEquals(2L, counts.get("INVALID_WEIGHT"));
+        assertEquals(1L, counts.get("MISSING_TICKER"));
+        assertFalse(collector.truncated());
+    }
+
+    @Test
+    void testDetailIsCappedButCountsAreExact() {
+        RejectionCollector collector = new RejectionCollector(5);
+        for (int i = 0; i < 1000; i++) {
+            collector.add(i, RejectReason.INSUFFICIENT_CELLS, null);
+        }
+        assertEquals(1000, collector.rejected());
+        assertTrue(collector.truncated());
+        assertEquals("INSUFFICIENT_CELLS=1000", collector.reasonCounts());
+        assertEquals(5, RejectionCollector.decode(collector.finish(), 100).size());
+    }
+}
@@ -0,0 +1,247 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.esg.risk.backend.dto.ReportBatchRequest;
+import com.esg.risk.backend.model.Report;
+import com.esg.risk.backend.model.ReportBatchItem;
+import com.esg.risk.backend.model.ReportBatchRun;
+import com.esg.risk.backend.repository.PortfolioRepository;
+import com.esg.risk.backend.repository.ReportBatchItemRepository;
+import com.esg.risk.backend.repository.ReportBatchRunRepository;
+import com.esg.risk.backend.service.ReportBatchService;
+import com.esg.risk.backend.service.ReportService;
+
+class ReportBatchServiceTest {
+
+    private static final List<Long> PORTFOLIOS = List.of(1L, 2L, 3L, 4L, 5L);
+
+    private final Map<Long, ReportBatchRun> runs = new ConcurrentHashMap<>();
+    private final List<ReportBatchItem> items = new CopyOnWriteArrayList<>();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final List<Object[]> enqueued = new CopyOnWriteArrayList<>();
+    private boolean claimable = true;
+
+    private final ReportService reportService = mock(ReportService.class);
+    private final PortfolioRepository portfolioRepo = mock(PortfolioRepository.class);
+    private final ReportBatchItemRepository itemRepo = itemRepository();
+    private final ReportBatchService service = new ReportBatchService(reportService, portfolioRepo,
+            runRepository(), itemRepo, jdbcTemplate(), mock(PlatformTransactionManager.class), 2, 10, 1000, 30);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testRunGeneratesReportForEveryPortfolio() throws Exception {
+        when(portfolioRepo.existsById(anyLong())).thenAnswer(inv -> !inv.getArgument(0).equals(4L));
+        when(reportService.generateXlsxReport(anyLong(), any())).thenAnswer(inv -> report(inv.getArgument(0)));
+
+        Long runId = service.start(new ReportBatchRequest(), "API").getRunId();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        ReportBatchRun run = runs.get(runId);
+        assertEquals(ReportBatchRun.COMPLETED, run.getStatus());
+        assertEquals(5, run.getTotal());
+        assertEquals(List.of("DONE", "DONE", "DONE", "SKIPPED", "DONE"), statuses());
+        assertEquals(103L, items.get(2).getReportId());
+    }
+
+    @Test
+    void testInterruptedRunResumesWithPendingItems() throws Exception {
+        ReportBatchRun run = new ReportBatchRun();
+        run.setId(7L);
+        run.setStatus(ReportBatchRun.RUNNING);
+        run.setTotal(5);
+        runs.put(7L, run);
+        for (Long portfolioId : PORTFOLIOS) {
+            // The first two finished before the crash
+            items.add(item(7L, portfolioId, portfolioId <= 2 ? ReportBatchItem.DONE : ReportBatchItem.PENDING));
+        }
+        when(portfolioRepo.existsById(anyLong())).thenReturn(true);
+        when(reportService.generateXlsxReport(anyLong(), any())).thenAnswer(inv -> report(inv.getArgument(0)));
+
+        service.resumeInterrupted();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(ReportBatchRun.COMPLETED, run.getStatus());
+        assertEquals(List.of("DONE", "DONE", "DONE", "DONE", "DONE"), statuses());
+        verify(reportService, never()).generateXlsxReport(eq(1L), any());
+        verify(reportService, never()).generateXlsxReport(eq(2L), any());
+    }
+
+    @Test
+    void testRunAliveOnAnotherInstanceIsNotResumed() throws Exception {
+        ReportBatchRun run = new ReportBatchRun();
+        run.setId(7L);
+        run.setStatus(ReportBatchRun.RUNNING);
+        run.setOwner("other-instance");
+        runs.put(7L, run);
+        items.add(item(7L, 3L, ReportBatchItem.PENDING));
+        // Its heartbeat is fresh, so the claim matches no row
+        claimable = false;
+
+        service.resumeInterrupted();
+
+        assertFalse(finished.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(ReportBatchRun.RUNNING, run.getStatus());
+        verify(reportService, never()).generateXlsxReport(anyLong(), any());
+    }
+
+    @Test
+    void testNameFilterIsLiteralAndSelectionFitsItsColumn() throws Exception {
+        when(portfolioRepo.existsById(anyLong())).thenReturn(true);
+        when(reportService.generateXlsxReport(anyLong(), any())).thenAnswer(inv -> report(inv.getArgument(0)));
+        ReportBatchRequest request = new ReportBatchRequest();
+        request.setNameContains(" 50%_fund!" + "x".repeat(300));
+
+        Long runId = service.start(request, "API").getRunId();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Object[] args = enqueued.get(0);
+        assertTrue(((String) args[0]).endsWith("LIKE ? ESCAPE '!' ORDER BY id"));
+        assertEquals("%50!%!_fund!!" + "x".repeat(300) + "%", args[3]);
+        assertEquals(255, runs.get(runId).getSelection().length());
+    }
+
+    @Test
+    void testRunFailsWhenItemsCannotBeRecorded() throws Exception {
+        when(portfolioRepo.existsById(anyLong())).thenReturn(true);
+        when(reportService.generateXlsxReport(anyLong(), any())).thenAnswer(inv -> report(inv.getArgument(0)));
+        when(itemRepo.save(any(ReportBatchItem.class))).thenAnswer(inv -> {
+            ReportBatchItem item = inv.getArgument(0);
+            if (item.getPortfolioId().equals(3L)) {
+                item.setStatus(ReportBatchItem.PENDING);
+                throw new IllegalStateException("connection reset");
+            }
+            return item;
+        });
+
+        Long runId = service.start(new ReportBatchRequest(), "API").getRunId();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(ReportBatchRun.FAILED, runs.get(runId).getStatus());
+        assertEquals(List.of("DONE", "DONE", "PENDING", "DONE", "DONE"), statuses());
+    }
+
+    private List<String> statuses() {
+        return items.stream().map(ReportBatchItem::getStatus).collect(Collectors.toList());
+    }
+
+    private ReportBatchRunRepository runRepository() {
+        ReportBatchRunRepository repo = mock(ReportBatchRunRepository.class);
+        when(repo.saveAndFlush(any(ReportBatchRun.class))).thenAnswer(inv -> {
+            ReportBatchRun run = inv.getArgument(0);
+            run.setId((long) runs.size() + 1);
+            runs.put(run.getId(), run);
+            return run;
+        });
+        when(repo.save(any(ReportBatchRun.class))).thenAnswer(inv -> {
+            ReportBatchRun run = inv.getArgument(0);
+            runs.put(run.getId(), run);
+            if (!ReportBatchRun.RUNNING.equals(run.getStatus())) {
+                finished.countDown();
+            }
+            return run;
+        });
+        when(repo.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(runs.get(inv.<Long>getArgument(0))));
+        when(repo.findByStatus(anyString())).thenAnswer(inv -> runs.values().stream()
+                .filter(r -> r.getStatus().equals(inv.getArgument(0)))
+                .collect(Collectors.toList()));
+        return repo;
+    }
+
+    private ReportBatchItemRepository itemRepository() {
+        ReportBatchItemRepository repo = mock(ReportBatchItemRepository.class);
+        when(repo.findTop500ByRunIdAndStatusAndIdGreaterThanOrderById(anyLong(), anyString(), anyLong()))
+                .thenAnswer(inv -> items.stream()
+                        .filter(i -> i.getRunId().equals(inv.getArgument(0))
+                                && i.getStatus().equals(inv.getArgument(1))
+                                && i.getId() > inv.<Long>getArgument(2))
+                        .limit(500)
+                        .collect(Collectors.toList()));
+        when(repo.countByRunIdAndStatus(anyLong(), anyString())).thenAnswer(inv -> items.stream()
+                .filter(i -> i.getRunId().equals(inv.getArgument(0)) && i.getStatus().equals(inv.getArgument(1)))
+                .count());
+        when(repo.save(any(ReportBatchItem.class))).thenAnswer(inv -> inv.getArgument(0));
+        return repo;
+    }
+
+    /**
+     * Answers the INSERT ... SELECT that enqueues a run with one item per portfolio,
+     * the claim of a stale run and the ownership check. Every run is this instance's
+     * once started or claimed.
+     */
+    private JdbcTemplate jdbcTemplate() {
+        return mock(JdbcTemplate.class, invocation -> {
+            Object[] args = invocation.getArguments();
+            switch (invocation.getMethod().getName()) {
+                case "update":
+                    String sql = (String) args[0];
+                    if (sql.startsWith("INSERT INTO report_batch_item")) {
+                        enqueued.add(args);
+                        Long runId = (Long) args[1];
+                        List<ReportBatchItem> added = new ArrayList<>();
+                        for (Long portfolioId : PORTFOLIOS) {
+                            added.add(item(runId, portfolioId, (String) args[2]));
+                        }
+                        items.addAll(added);
+                        return added.size();
+                    }
+                    if (sql.contains("SET owner = ?")) {
+                        if (!claimable) {
+                            return 0;
+                        }
+                        runs.get((Long) args[2]).setOwner((String) args[1]);
+                        return 1;
+                    }
+                    return 1;
+                case "queryForObject":
+                    return 1L;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private ReportBatchItem item(Long runId, Long portfolioId, String status) {
+        ReportBatchItem item = new ReportBatchItem();
+        item.setId((long) items.size() + portfolioId);
+        item.setRunId(runId);
+        item.setPortfolioId(portfolioId);
+        item.setStatus(status);
+        return item;
+    }
+
+    private static Report report(Long portfolioId) {
+        Report report = new Report();
+        report.setId(100 + portfolioId);
+        return report;
+    }
+}
@@ -0,0 +1,107 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.esg.risk.backend.model.Report;
+import com.esg.risk.backend.repository.ReportRepository;
+import com.esg.risk.backend.service.MinioService;
+import com.esg.risk.backend.service.ReportRetentionService;
+
+class ReportRetentionServiceTest {
+
+    private final ReportRepository reportRepo = mock(ReportRepository.class);
+    private final MinioService minioService = mock(MinioService.class);
+    private final List<String> queries = new ArrayList<>();
+
+    /**
+     * JdbcTemplate stand-in returning the expired reports of each pass in turn.
+     */
+    @SafeVarargs
+    private JdbcTemplate database(List<Report>... passes) {
+        Deque<List<Report>> pending = new ArrayDeque<>(List.of(passes));
+        return mock(JdbcTemplate.class, invocation -> {
+            if ("query".equals(invocation.getMethod().getName())) {
+                queries.add(invocation.getArgument(0));
+                return pending.isEmpty() ? List.of() : pending.poll();
+            }
+            return null;
+        });
+    }
+
+    @Test
+    void testDisabledDoesNothing() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        ReportRetentionService service = new ReportRetentionService(reportRepo, minioService, jdbc, 0, 0, 500, 50_000, 1000);
+
+        assertEquals(0, service.purge());
+        verifyNoInteractions(jdbc, reportRepo, minioService);
+    }
+
+    @Test
+    void testDeletesRowsOnlyForRemovedObjects() throws Exception {
+        JdbcTemplate jdbc = database(List.of(report(1L), report(2L), report(3L), report(7L)));
+        when(minioService.removeFiles(anyList())).thenReturn(List.of("reports/2.xlsx"), List.of());
+        ReportRetentionService service = new ReportRetentionService(reportRepo, minioService, jdbc, 12, 0, 3, 50_000, 1000);
+
+        assertEquals(3, service.purge());
+
+        verify(minioService).removeFiles(List.of("reports/1.xlsx", "reports/2.xlsx", "reports/3.xlsx"));
+        verify(reportRepo).deleteAllByIdInBatch(List.of(1L, 3L));
+        verify(reportRepo).deleteAllByIdInBatch(List.of(7L));
+        assertEquals(1, queries.size(), "ranks once; a pass that is not full is the last");
+        assertTrue(queries.get(0).contains("rn > ?"));
+        assertFalse(queries.get(0).contains("created_at < ?"), "age rule is off");
+    }
+
+    @Test
+    void testFullPassRanksAgain() throws Exception {
+        JdbcTemplate jdbc = database(
+                List.of(report(1L), report(2L), report(3L), report(4L)),
+                List.of(report(5L)));
+        when(minioService.removeFiles(anyList())).thenReturn(List.of());
+        ReportRetentionService service = new ReportRetentionService(reportRepo, minioService, jdbc, 0, 30, 2, 4, 1000);
+
+        assertEquals(5, service.purge());
+
+        verify(reportRepo).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(reportRepo).deleteAllByIdInBatch(List.of(3L, 4L));
+        verify(reportRepo).deleteAllByIdInBatch(List.of(5L));
+        assertEquals(2, queries.size());
+        assertTrue(queries.get(0).contains("created_at < ?"));
+    }
+
+    @Test
+    void testFullPassWithoutProgressStops() throws Exception {
+        JdbcTemplate jdbc = database(
+                List.of(report(1L), report(2L)),
+                List.of(report(1L), report(2L)));
+        when(minioService.removeFiles(anyList())).thenReturn(List.of("reports/1.xlsx", "reports/2.xlsx"));
+        ReportRetentionService service = new ReportRetentionService(reportRepo, minioService, jdbc, 12, 0, 2, 2, 1000);
+
+        assertEquals(0, service.purge());
+
+        assertEquals(1, queries.size(), "objects that could not be removed are retried next purge, not now");
+    }
+
+    private static Report report(Long id) {
+        Report r = new Report();
+        r.setId(id);
+        r.setS3Path("reports/" + id + ".xlsx");
+        return r;
+    }
+}
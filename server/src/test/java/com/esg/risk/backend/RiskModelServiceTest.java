@@ -0,0 +1,223 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.esg.risk.backend.dto.HoldingRisk;
+import com.esg.risk.backend.dto.PageResult;
+import com.esg.risk.backend.dto.PortfolioRisk;
+import com.esg.risk.backend.dto.PortfolioVolatility;
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.service.CovarianceMatrix;
+import com.esg.risk.backend.service.DimensionService;
+import com.esg.risk.backend.service.MinioService;
+import com.esg.risk.backend.service.RiskModelService;
+
+class RiskModelServiceTest {
+
+    private static final String MATRIX =
+            ",Tech:Europe,Tech,Energy\n"
+            + "Tech:Europe,0.09,0.03,0.01\n"
+            + "Tech,0.03,0.04,0.00\n"
+            + "Energy,0.01,0.00,0.16\n";
+
+    private final DimensionService dimensions = TestDimensions.create();
+    private final RiskModelService service =
+            new RiskModelService(dimensions, mock(MinioService.class), mock(JdbcTemplate.class), 2);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testVolatilityAndContributions() throws Exception {
+        service.load(new ByteArrayInputStream(MATRIX.getBytes(StandardCharsets.UTF_8)));
+
+        // 50% Tech:Europe, 25% Tech (falls back from Tech:Asia), 25% Energy
+        PortfolioRisk risk = service.risk(List.of(
+                holding("AAA", "Tech", "Europe", 50),
+                holding("BBB", "Tech", "Asia", 25),
+                holding("CCC", "Energy", "Europe", 25)));
+
+        double[] x = {0.5, 0.25, 0.25};
+        double[][] sigma = {{0.09, 0.03, 0.01}, {0.03, 0.04, 0.00}, {0.01, 0.00, 0.16}};
+        double variance = 0;
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                variance += x[i] * sigma[i][j] * x[j];
+            }
+        }
+        assertEquals(Math.sqrt(variance), risk.getVolatility(), 1e-12);
+        assertEquals(0.0, risk.getUnmappedWeight(), 1e-12);
+
+        // Euler decomposition: contributions add up to the volatility
+        double sum = risk.getHoldings().stream().mapToDouble(HoldingRisk::getRiskContribution).sum();
+        assertEquals(risk.getVolatility(), sum, 1e-12);
+        double factorSum = risk.getFactorContributions().values().stream().mapToDouble(Double::doubleValue).sum();
+        assertEquals(risk.getVolatility(), factorSum, 1e-12);
+        assertEquals("AAA", risk.getHoldings().get(0).getTicker());
+        assertEquals("Tech", risk.getHoldings().stream()
+                .filter(h -> h.getTicker().equals("BBB")).findFirst().get().getFactor());
+    }
+
+    @Test
+    void testUnmappedHoldingsAddNoRisk() throws Exception {
+        service.load(new ByteArrayInputStream(MATRIX.getBytes(StandardCharsets.UTF_8)));
+
+        PortfolioRisk risk = service.risk(List.of(
+                holding("AAA", "Energy", "Europe", 50),
+                holding("ZZZ", "Utilities", "Europe", 50)));
+
+        assertEquals(Math.sqrt(0.25 * 0.16), risk.getVolatility(), 1e-12);
+        assertEquals(50.0, risk.getUnmappedWeight(), 1e-12);
+        assertNull(risk.getHoldings().get(1).getFactor());
+    }
+
+    @Test
+    void testRankingIsReusedUntilPortfoliosChange() throws Exception {
+        AtomicLong dataVersion = new AtomicLong(11);
+        AtomicInteger aggregates = new AtomicInteger();
+        List<Object[]> exposures = List.of(
+                new Object[] {1L, "Calm", dimensions.sectorId("Tech"), dimensions.regionId("Europe"), 100.0},
+                new Object[] {2L, "Oily", dimensions.sectorId("Energy"), dimensions.regionId("Europe"), 100.0},
+                new Object[] {3L, "Mixed", dimensions.sectorId("Tech"), dimensions.regionId("Asia"), 100.0});
+        JdbcTemplate jdbc = mock(JdbcTemplate.class, invocation -> {
+            if ("query".equals(invocation.getMethod().getName())) {
+                String sql = invocation.getArgument(0);
+                RowCallbackHandler handler = invocation.getArgument(1);
+                if (sql.contains("BIT_XOR")) {
+                    handler.processRow(row(new Object[] {3L, dataVersion.get()}));
+                } else {
+                    aggregates.incrementAndGet();
+                    for (Object[] exposure : exposures) {
+                        handler.processRow(row(exposure));
+                    }
+                }
+            }
+            return null;
+        });
+        RiskModelService ranked = new RiskModelService(dimensions, mock(MinioService.class), jdbc, 2);
+        try {
+            ranked.load(new ByteArrayInputStream(MATRIX.getBytes(StandardCharsets.UTF_8)));
+
+            PageResult<PortfolioVolatility> first = ranked.riskAll(0, 2);
+            PageResult<PortfolioVolatility> second = ranked.riskAll(1, 2);
+
+            assertEquals(List.of(2L, 1L), first.getContent().stream().map(PortfolioVolatility::getPortfolioId).toList());
+            assertEquals(3L, second.getContent().get(0).getPortfolioId());
+            assertEquals(3, second.getTotalElements());
+            assertEquals(1, aggregates.get());
+
+            // An upload writes a new data version
+            dataVersion.set(-42);
+            ranked.riskAll(0, 2);
+            assertEquals(2, aggregates.get());
+
+            // A newly published matrix ranks again as well
+            ranked.load(new ByteArrayInputStream(MATRIX.getBytes(StandardCharsets.UTF_8)));
+            ranked.riskAll(0, 2);
+            assertEquals(3, aggregates.get());
+        } finally {
+            ranked.shutdown();
+        }
+    }
+
+    @Test
+    void testNoMatrixLoaded() {
+        assertFalse(service.isLoaded());
+        assertThrows(IllegalStateException.class, () -> service.risk(List.of()));
+    }
+
+    @Test
+    void testBlockedMultiplyMatchesNaive() {
+        int n = 150; // spans several blocks
+        Random random = new Random(7);
+        String[] labels = new String[n];
+        double[] sigma = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            labels[i] = "F" + i;
+            for (int j = 0; j <= i; j++) {
+                double v = i == j ? 1 + random.nextDouble() : random.nextDouble() * 0.1;
+                sigma[i * n + j] = v;
+                sigma[j * n + i] = v;
+            }
+        }
+        CovarianceMatrix matrix = CovarianceMatrix.of(labels, sigma);
+
+        int rows = 40;
+        double[] x = new double[rows * n];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = random.nextDouble() < 0.3 ? random.nextDouble() : 0;
+        }
+        double[] y = new double[rows * n];
+        matrix.multiply(x, y, 0, 17);
+        matrix.multiply(x, y, 17, rows);
+
+        for (int r = 0; r < rows; r++) {
+            for (int j = 0; j < n; j++) {
+                double expected = 0;
+                for (int k = 0; k < n; k++) {
+                    expected += x[r * n + k] * sigma[k * n + j];
+                }
+                assertEquals(expected, y[r * n + j], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void testRejectsAsymmetricMatrix() {
+        String csv = ",A,B\nA,1,0.5\nB,0.4,1\n";
+        assertThrows(IllegalArgumentException.class,
+                () -> CovarianceMatrix.parse(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * ResultSet positioned on one row of {@code values}, read by column index.
+     */
+    private static ResultSet row(Object[] values) {
+        return mock(ResultSet.class, invocation -> {
+            Object[] args = invocation.getArguments();
+            if (args.length != 1 || !(args[0] instanceof Integer column)) {
+                return invocation.getMethod().getName().equals("wasNull") ? false : null;
+            }
+            Object value = values[column - 1];
+            switch (invocation.getMethod().getName()) {
+                case "getLong":
+                    return ((Number) value).longValue();
+                case "getInt":
+                    return ((Number) value).intValue();
+                case "getDouble":
+                    return ((Number) value).doubleValue();
+                default:
+                    return value;
+            }
+        });
+    }
+
+    private Holding holding(String ticker, String sector, String region, double weight) {
+        Holding h = new Holding();
+        h.setTicker(ticker);
+        h.setSectorId(dimensions.sectorId(sector));
+        h.setRegionId(dimensions.regionId(region));
+        h.setWeight(weight);
+        h.setEsgScore(50.0);
+        return h;
+    }
+}
@@ -7,11 +7,13 @@ import org.junit.jupiter.api.Test;
 
 import com.esg.risk.backend.model.Holding;
 import com.esg.risk.backend.model.Portfolio;
+import com.esg.risk.backend.service.DimensionService;
 import com.esg.risk.backend.service.StressTestService;
 
 class StressTestServiceTest {
 
-    private final StressTestService service = new StressTestService();
+    private final DimensionService dimensions = TestDimensions.create();
+    private final StressTestService service = new StressTestService(dimensions);
 
     @Test
     void testOilShock() {
@@ -19,12 +21,12 @@ class StressTestServiceTest {
 
         Holding h1 = new Holding();
         h1.setPortfolio(p);
-        h1.setSector("Tech");
+        h1.setSectorId(dimensions.sectorId("Tech"));
         h1.setWeight(0.6);
 
         Holding h2 = new Holding();
         h2.setPortfolio(p);
-        h2.setSector("Energy");
+        h2.setSectorId(dimensions.sectorId("Energy"));
         h2.setWeight(0.4);
 
         double result = service.runScenario(Arrays.asList(h1, h2), "oil-shock");
@@ -37,12 +39,12 @@ class StressTestServiceTest {
 
         Holding h1 = new Holding();
         h1.setPortfolio(p);
-        h1.setSector("Renewables");
+        h1.setSectorId(dimensions.sectorId("Renewables"));
         h1.setWeight(0.5);
 
         Holding h2 = new Holding();
         h2.setPortfolio(p);
-        h2.setSector("Energy");
+        h2.setSectorId(dimensions.sectorId("Energy"));
         h2.setWeight(0.5);
 
         double result = service.runScenario(Arrays.asList(h1, h2), "climate-policy");
@@ -0,0 +1,43 @@
+package com.esg.risk.backend;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.esg.risk.backend.model.Region;
+import com.esg.risk.backend.model.Sector;
+import com.esg.risk.backend.repository.RegionRepository;
+import com.esg.risk.backend.repository.SectorRepository;
+import com.esg.risk.backend.service.DimensionService;
+
+/**
+ * Builds a DimensionService backed by mock repositories that hand out sequential ids.
+ */
+final class TestDimensions {
+
+    private TestDimensions() {
+    }
+
+    static DimensionService create() {
+        AtomicInteger sectorIds = new AtomicInteger();
+        AtomicInteger regionIds = new AtomicInteger();
+
+        SectorRepository sectors = mock(SectorRepository.class);
+        when(sectors.save(any(Sector.class))).thenAnswer(inv -> {
+            Sector s = inv.getArgument(0);
+            s.setId(sectorIds.incrementAndGet());
+            return s;
+        });
+
+        RegionRepository regions = mock(RegionRepository.class);
+        when(regions.save(any(Region.class))).thenAnswer(inv -> {
+            Region r = inv.getArgument(0);
+            r.setId(regionIds.incrementAndGet());
+            return r;
+        });
+
+        return new DimensionService(sectors, regions);
+    }
+}
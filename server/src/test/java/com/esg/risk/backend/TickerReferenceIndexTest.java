@@ -0,0 +1,66 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.esg.risk.backend.service.TickerReferenceIndex;
+
+class TickerReferenceIndexTest {
+
+    @Test
+    void testLookupIsCaseInsensitive() {
+        TickerReferenceIndex index = new TickerReferenceIndex.Builder()
+                .put("AAPL", 1, 2, 85.0)
+                .put("BRK.B", 3, 2, 70.5)
+                .build();
+
+        int row = index.find(" brk.b ");
+        assertEquals(3, index.sectorId(row));
+        assertEquals(70.5, index.esgScore(row));
+        assertEquals("BRK.B", index.ticker(row));
+        assertEquals(TickerReferenceIndex.NOT_FOUND, index.find("MSFT"));
+    }
+
+    @Test
+    void testLongAndUnusualTickersUseFallback() {
+        TickerReferenceIndex index = new TickerReferenceIndex.Builder()
+                .put("VERYLONGTICKER123", 1, 1, 10.0)
+                .put("ÆON", 2, 2, 20.0)
+                .build();
+
+        assertEquals(1, index.sectorId(index.find("verylongticker123")));
+        assertEquals(2, index.sectorId(index.find("æon")));
+        assertEquals("VERYLONGTICKER123", index.ticker(index.find("VERYLONGTICKER123")));
+    }
+
+    @Test
+    void testLaterRowOverwritesAndMergeKeepsOthers() {
+        TickerReferenceIndex base = new TickerReferenceIndex.Builder()
+                .put("AAPL", 1, 1, 80.0)
+                .put("XOM", 2, 1, 40.0)
+                .put("AAPL", 1, 1, 82.0)
+                .build();
+        assertEquals(2, base.size());
+        assertEquals(82.0, base.esgScore(base.find("AAPL")));
+
+        TickerReferenceIndex merged = base.toBuilder().put("XOM", 2, 1, 45.0).put("TSLA", 4, 1, 60.0).build();
+        assertEquals(3, merged.size());
+        assertEquals(82.0, merged.esgScore(merged.find("AAPL")));
+        assertEquals(45.0, merged.esgScore(merged.find("XOM")));
+        // The published base index is unchanged
+        assertEquals(40.0, base.esgScore(base.find("XOM")));
+    }
+
+    @Test
+    void testManyTickers() {
+        TickerReferenceIndex.Builder builder = new TickerReferenceIndex.Builder();
+        for (int i = 0; i < 50_000; i++) {
+            builder.put("T" + i, i % 11, i % 5, i);
+        }
+        TickerReferenceIndex index = builder.build();
+        for (int i = 0; i < 50_000; i += 997) {
+            assertEquals((double) i, index.esgScore(index.find("T" + i)));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.esg.risk.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.esg.risk.backend.dto.ReferenceLoadSummary;
+import com.esg.risk.backend.dto.TickerReference;
+import com.esg.risk.backend.model.Holding;
+import com.esg.risk.backend.service.DimensionService;
+import com.esg.risk.backend.service.MinioService;
+import com.esg.risk.backend.service.TickerReferenceService;
+
+class TickerReferenceServiceTest {
+
+    private final DimensionService dimensions = TestDimensions.create();
+    private final MinioService minio = mock(MinioService.class);
+    private final TickerReferenceService service = new TickerReferenceService(dimensions, minio);
+
+    @Test
+    void testLoadSkipsHeaderAndRejectsBadLines() throws Exception {
+        ReferenceLoadSummary summary = service.load(csv(
+                "ticker,sector,region,esgScore\n"
+                        + "AAPL,Technology,North America,85.5\n"
+                        + "\n"
+                        + "XOM,Energy,North America\n"
+                        + ",Energy,Europe,40\n"
+                        + "BP,Energy,Europe,not-a-number\n"
+                        + "shel,Energy,Europe,55\n"), false);
+
+        assertEquals(2, summary.getRowsLoaded());
+        assertEquals(3, summary.getRowsRejected());
+        assertEquals(2, summary.getTickers());
+
+        TickerReference shel = service.lookup("SHEL");
+        assertEquals("SHEL", shel.getTicker());
+        assertEquals("Energy", shel.getSector());
+        assertEquals("Europe", shel.getRegion());
+        assertEquals(55.0, shel.getEsgScore());
+        assertNull(service.lookup("XOM"));
+    }
+
+    @Test
+    void testEnrichFillsOnlyMissingFields() throws Exception {
+        service.load(csv("AAPL,Technology,North America,85.5\n"), false);
+
+        Holding empty = holding("aapl");
+        assertTrue(service.enrich(empty));
+        assertEquals(dimensions.sectorId("Technology"), empty.getSectorId());
+        assertEquals(dimensions.regionId("North America"), empty.getRegionId());
+        assertEquals(85.5, empty.getEsgScore());
+
+        Holding partial = holding("AAPL");
+        partial.setSectorId(dimensions.sectorId("Consumer"));
+        partial.setEsgScore(60.0);
+        assertTrue(service.enrich(partial));
+        assertEquals(dimensions.sectorId("Consumer"), partial.getSectorId());
+        assertEquals(dimensions.regionId("North America"), partial.getRegionId());
+        assertEquals(60.0, partial.getEsgScore());
+
+        Holding unknown = holding("MSFT");
+        assertFalse(service.enrich(unknown));
+        assertNull(unknown.getSectorId());
+        assertNull(unknown.getEsgScore());
+    }
+
+    @Test
+    void testMergeKeepsOtherTickersAndReplaceDropsThem() throws Exception {
+        service.load(csv("AAPL,Technology,North America,80\nXOM,Energy,North America,40\n"), false);
+
+        service.load(csv("XOM,Energy,North America,45\nTSLA,Automotive,North America,60\n"), true);
+        assertEquals(3, service.size());
+        assertEquals(80.0, service.lookup("AAPL").getEsgScore());
+        assertEquals(45.0, service.lookup("XOM").getEsgScore());
+
+        service.load(csv("BP,Energy,Europe,50\n"), false);
+        assertEquals(1, service.size());
+        assertNull(service.lookup("AAPL"));
+    }
+
+    @Test
+    void testLoadIsStoredAndRestored() throws Exception {
+        AtomicReference<byte[]> stored = new AtomicReference<>();
+        when(minio.uploadFile(eq("reference/tickers.csv"), any(), anyLong(), eq("text/csv"))).thenAnswer(inv -> {
+            stored.set(((InputStream) inv.getArgument(1)).readAllBytes());
+            return "reference/tickers.csv";
+        });
+        service.load(csv("AAPL,Technology,North America,85.5\nBP,Energy,Europe,50\n"), false);
+
+        when(minio.getFile("reference/tickers.csv")).thenAnswer(inv -> new ByteArrayInputStream(stored.get()));
+        TickerReferenceService restarted = new TickerReferenceService(dimensions, minio);
+        restarted.restore();
+
+        assertEquals(2, restarted.size());
+        TickerReference aapl = restarted.lookup("aapl");
+        assertEquals("Technology", aapl.getSector());
+        assertEquals("North America", aapl.getRegion());
+        assertEquals(85.5, aapl.getEsgScore());
+        // Restoring publishes what is already in the bucket; it does not upload it again
+        verify(minio).uploadFile(eq("reference/tickers.csv"), any(), anyLong(), eq("text/csv"));
+    }
+
+    @Test
+    void testRestoreWithoutStoredDataStaysEmpty() throws Exception {
+        when(minio.getFile("reference/tickers.csv")).thenThrow(new IllegalStateException("no such key"));
+
+        service.restore();
+
+        assertEquals(0, service.size());
+        verify(minio, never()).uploadFile(any(), any(), anyLong(), any());
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Holding holding(String ticker) {
+        Holding h = new Holding();
+        h.setTicker(ticker);
+        return h;
+    }
+}